@@ -0,0 +1,47 @@
+package co.eci.snake.bench;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import co.eci.snake.core.Board;
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Position;
+import co.eci.snake.core.Snake;
+
+// Construcción reproducible de tableros para los benchmarks
+final class BenchBoards {
+  private BenchBoards() {
+  }
+
+  // size con formato "ANCHOxALTO", p. ej. "60x40"
+  static int width(String size) {
+    return Integer.parseInt(size.substring(0, size.indexOf('x')));
+  }
+
+  static int height(String size) {
+    return Integer.parseInt(size.substring(size.indexOf('x') + 1));
+  }
+
+  // Tablero con hasta `snakes` serpientes en celdas distintas y libres de items.
+  // Si no caben, se limita a la mitad de las celdas.
+  static Board create(String size, int snakes, long seed) {
+    int width = width(size);
+    int height = height(size);
+    Board board = new Board(width, height, seed);
+    Random rnd = new Random(seed);
+    Set<Position> taken = new HashSet<>();
+    taken.addAll(board.mice());
+    taken.addAll(board.obstacles());
+    taken.addAll(board.turbo());
+    taken.addAll(board.teleports().keySet());
+    int count = Math.min(snakes, width * height / 2);
+    Direction[] dirs = Direction.values();
+    while (board.snakes().size() < count) {
+      Position p = new Position(rnd.nextInt(width), rnd.nextInt(height));
+      if (taken.add(p))
+        board.addSnake(Snake.of(p.x(), p.y(), dirs[rnd.nextInt(dirs.length)]));
+    }
+    return board;
+  }
+}
@@ -0,0 +1,139 @@
+package co.eci.snake.bench;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.eci.snake.core.Board;
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Snake;
+
+// Board.step con muchas serpientes y `threads` hilos sobre el mismo tablero.
+// Como los SnakeRunner, cada hilo mueve solo sus serpientes (las de índice
+// i % threads == hilo), en round-robin: dos hilos nunca mueven la misma.
+// JMH corre un solo hilo que reparte cada ronda de STEPS movimientos entre los
+// hilos y espera a que terminen; el resultado es por movimiento.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class BoardStepBenchmark {
+  // Movimientos por invocación, repartidos entre los hilos
+  private static final int STEPS = 4096;
+
+  @Param({ "2", "50", "999", "10000" })
+  public int snakes;
+
+  @Param({ "60x40", "400x400" })
+  public String board;
+
+  @Param({ "1", "2", "4", "8" })
+  public int threads;
+
+  private Board target;
+  private Lane[] lanes;
+  private ExecutorService pool;
+
+  // Serpientes propias de un hilo y su cursor
+  static final class Lane {
+    private final Board board;
+    private final Snake[] own;
+    private int next;
+
+    Lane(Board board, Snake[] own) {
+      this.board = board;
+      this.own = own;
+    }
+
+    int run(int steps) {
+      var rnd = ThreadLocalRandom.current();
+      int moved = 0;
+      for (int i = 0; i < steps; i++) {
+        Snake snake = own[next++ % own.length];
+        if (rnd.nextInt(10) == 0)
+          snake.turn(Direction.values()[rnd.nextInt(4)]);
+        var res = board.step(snake);
+        // Las serpientes "muertas" siguen en el tablero: solo giran para intentar otro camino
+        if (res == Board.MoveResult.HIT_OBSTACLE || res == Board.MoveResult.DEAD_BY_OTHER
+            || res == Board.MoveResult.DEAD_BY_SELF)
+          snake.turn(Direction.values()[rnd.nextInt(4)]);
+        else
+          moved++;
+      }
+      return moved;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void startPool() {
+    if (threads < 1)
+      throw new IllegalArgumentException("threads must be >= 1");
+    // El hilo de JMH hace la parte del hilo 0
+    pool = threads > 1 ? Executors.newFixedThreadPool(threads - 1) : null;
+  }
+
+  @TearDown(Level.Trial)
+  public void stopPool() {
+    if (pool != null)
+      pool.shutdownNow();
+  }
+
+  // Se recrea en cada iteración para que las muertes y el crecimiento no se acumulen
+  @Setup(Level.Iteration)
+  public void setUp() {
+    target = BenchBoards.create(board, snakes, 42);
+    List<Snake> all = target.snakes();
+    // Con menos serpientes que hilos sobran hilos: cada uno necesita la suya
+    int n = Math.min(threads, all.size());
+    lanes = new Lane[n];
+    for (int t = 0; t < n; t++) {
+      Snake[] own = new Snake[(all.size() - t + n - 1) / n];
+      for (int i = t, k = 0; i < all.size(); i += n)
+        own[k++] = all.get(i);
+      lanes[t] = new Lane(target, own);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(STEPS)
+  public int step() throws Exception {
+    int n = lanes.length;
+    Future<?>[] others = new Future<?>[n - 1];
+    for (int t = 1; t < n; t++) {
+      Lane lane = lanes[t];
+      int steps = share(t, n);
+      others[t - 1] = pool.submit(() -> lane.run(steps));
+    }
+    int moved = lanes[0].run(share(0, n));
+    for (Future<?> f : others)
+      moved += (Integer) f.get();
+    return moved;
+  }
+
+  // Parte de los STEPS del hilo t (los primeros se llevan el resto)
+  private static int share(int t, int n) {
+    return STEPS / n + (t < STEPS % n ? 1 : 0);
+  }
+}
@@ -0,0 +1,73 @@
+package co.eci.snake.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.eci.snake.core.Board;
+import co.eci.snake.core.BrainView;
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Snake;
+import co.eci.snake.core.SnakeBrain;
+
+// Fase de decisión de un tick (sin mover): cuánto cuesta cada SnakeBrain sobre
+// todas las serpientes con la misma vista, con el campo de distancias ya
+// calculado (se paga una vez por cambio de ratones, no por serpiente).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BrainBenchmark {
+  @Param({ "random", "greedy", "flood" })
+  public String brain;
+
+  @Param({ "1000", "10000" })
+  public int snakes;
+
+  @Param({ "400x400" })
+  public String board;
+
+  private Snake[] all;
+  private BrainView view;
+  private SnakeBrain snakeBrain;
+  private long tick = 0;
+
+  @Setup
+  public void setUp() {
+    Board target = BenchBoards.create(board, snakes, 42);
+    all = target.snakes().toArray(new Snake[0]);
+    view = target.brainView();
+    view.distanceToMouse(0, 0); // calcula el campo fuera de la medición
+    snakeBrain = SnakeBrain.of(brain);
+  }
+
+  @Benchmark
+  public int decideAll() {
+    int turns = 0;
+    long t = ++tick;
+    for (int i = 0; i < all.length; i++) {
+      Direction d = snakeBrain.decide(all[i], view, false, mix(t * 0x9E3779B97F4A7C15L + i));
+      if (d != null)
+        turns++;
+    }
+    return turns;
+  }
+
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,53 @@
+package co.eci.snake.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.eci.snake.core.GameState;
+
+// awaitIfPaused() sin pausa, como lo llama cada runner en cada iteración:
+// GameState (lectura volatile) contra el monitor compartido anterior, 8 hilos.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(8)
+public class PauseCheckBenchmark {
+  // Réplica de la implementación previa como línea base
+  static final class MonitorPause {
+    private volatile boolean paused = false;
+    private final Object pauseLock = new Object();
+
+    void awaitIfPaused() throws InterruptedException {
+      synchronized (pauseLock) {
+        while (paused)
+          pauseLock.wait();
+      }
+    }
+  }
+
+  private final GameState gameState = new GameState();
+  private final MonitorPause monitor = new MonitorPause();
+
+  @Benchmark
+  public void gameState() throws InterruptedException {
+    gameState.awaitIfPaused();
+  }
+
+  @Benchmark
+  public void monitor() throws InterruptedException {
+    monitor.awaitIfPaused();
+  }
+}
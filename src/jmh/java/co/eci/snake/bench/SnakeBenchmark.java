@@ -0,0 +1,104 @@
+package co.eci.snake.bench;
+
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Position;
+import co.eci.snake.core.Snake;
+
+// Snake.advance (escritor) contra snapshot()/head() (lectores) sobre la misma serpiente.
+// El grupo "rw" fija 1 escritor y 3 lectores; los benchmarks sueltos usan -t.
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnakeBenchmark {
+  // Largo del cuerpo: el costo de snapshot crece con él
+  @Param({ "5", "50", "500" })
+  public int length;
+
+  @Param({ "60x40", "400x400" })
+  public String board;
+
+  private Snake snake;
+  private int width;
+  private int height;
+  private int x;
+  private int y;
+
+  @Setup
+  public void setUp() {
+    width = BenchBoards.width(board);
+    height = BenchBoards.height(board);
+    snake = Snake.of(0, 0, Direction.RIGHT);
+    // Crecer hasta el largo pedido recorriendo el tablero fila por fila
+    for (int i = 1; i < length; i++)
+      advanceOnce(i >= 5); // maxLength inicial es 5
+  }
+
+  private void advanceOnce(boolean grow) {
+    x++;
+    if (x == width) {
+      x = 0;
+      y = (y + 1) % height;
+    }
+    snake.advance(new Position(x, y), grow);
+  }
+
+  @Benchmark
+  @Group("rw")
+  @GroupThreads(1)
+  public void advance() {
+    advanceOnce(false);
+  }
+
+  @Benchmark
+  @Group("rw")
+  @GroupThreads(3)
+  public Deque<Position> snapshot() {
+    return snake.snapshot();
+  }
+
+  @Benchmark
+  @Group("rh")
+  @GroupThreads(1)
+  public void advanceWhileHeadReads() {
+    advanceOnce(false);
+  }
+
+  @Benchmark
+  @Group("rh")
+  @GroupThreads(3)
+  public Position head() {
+    return snake.head();
+  }
+
+  @Benchmark
+  public Deque<Position> snapshotUncontended() {
+    return snake.snapshot();
+  }
+
+  // Recorrido sin copia sobre el ring buffer
+  @Benchmark
+  public void forEachCellUncontended(Blackhole bh) {
+    snake.forEachCell((i, cx, cy) -> bh.consume(cx + cy));
+  }
+}
@@ -0,0 +1,153 @@
+package co.eci.snake.bench;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Position;
+import co.eci.snake.core.Snake;
+
+// Lado lector: Snake (StampedLock optimista + head volatile) contra el cuerpo
+// anterior (ArrayDeque + ReentrantReadWriteLock), ambos con 1 escritor y 3 lectores.
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnakeReadLockBenchmark {
+  @Param({ "5", "50" })
+  public int length;
+
+  // Réplica de la implementación previa de Snake como línea base
+  static final class LockedBody {
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Deque<Position> body = new ArrayDeque<>();
+    private int maxLength;
+
+    LockedBody(int maxLength) {
+      this.maxLength = maxLength;
+    }
+
+    Position head() {
+      lock.readLock().lock();
+      try {
+        return body.peekFirst();
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    Deque<Position> snapshot() {
+      lock.readLock().lock();
+      try {
+        return new ArrayDeque<>(body);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    void advance(Position p) {
+      lock.writeLock().lock();
+      try {
+        body.addFirst(p);
+        while (body.size() > maxLength)
+          body.removeLast();
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+  }
+
+  private Snake snake;
+  private LockedBody locked;
+  private int x;
+
+  @Setup
+  public void setUp() {
+    snake = Snake.of(0, 0, Direction.RIGHT);
+    locked = new LockedBody(length);
+    for (int i = 1; i < length; i++) {
+      snake.advance(i % 1000, i / 1000, i >= 5); // maxLength inicial es 5
+      locked.advance(new Position(i % 1000, i / 1000));
+    }
+  }
+
+  private int nextX() {
+    x = (x + 1) % 1000;
+    return x;
+  }
+
+  @Benchmark
+  @Group("stampedHead")
+  @GroupThreads(1)
+  public void stampedHeadWriter() {
+    snake.advance(nextX(), 0, false);
+  }
+
+  @Benchmark
+  @Group("stampedHead")
+  @GroupThreads(3)
+  public Position stampedHead() {
+    return snake.head();
+  }
+
+  @Benchmark
+  @Group("rwlockHead")
+  @GroupThreads(1)
+  public void rwlockHeadWriter() {
+    locked.advance(new Position(nextX(), 0));
+  }
+
+  @Benchmark
+  @Group("rwlockHead")
+  @GroupThreads(3)
+  public Position rwlockHead() {
+    return locked.head();
+  }
+
+  @Benchmark
+  @Group("stampedSnapshot")
+  @GroupThreads(1)
+  public void stampedSnapshotWriter() {
+    snake.advance(nextX(), 0, false);
+  }
+
+  @Benchmark
+  @Group("stampedSnapshot")
+  @GroupThreads(3)
+  public Deque<Position> stampedSnapshot() {
+    return snake.snapshot();
+  }
+
+  @Benchmark
+  @Group("rwlockSnapshot")
+  @GroupThreads(1)
+  public void rwlockSnapshotWriter() {
+    locked.advance(new Position(nextX(), 0));
+  }
+
+  @Benchmark
+  @Group("rwlockSnapshot")
+  @GroupThreads(3)
+  public Deque<Position> rwlockSnapshot() {
+    return locked.snapshot();
+  }
+}
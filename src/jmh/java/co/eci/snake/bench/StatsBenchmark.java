@@ -0,0 +1,50 @@
+package co.eci.snake.bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.eci.snake.core.Board;
+
+// Board.getStats y el top 10 con tablero estático (la UI los pide al pausar)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatsBenchmark {
+  @Param({ "2", "50", "999", "10000" })
+  public int snakes;
+
+  @Param({ "60x40", "400x400" })
+  public String board;
+
+  private Board target;
+
+  @Setup
+  public void setUp() {
+    target = BenchBoards.create(board, snakes, 42);
+  }
+
+  @Benchmark
+  public Board.Stats getStats() {
+    return target.getStats();
+  }
+
+  @Benchmark
+  public List<Board.Leader> leaderboard() {
+    return target.leaderboard(10);
+  }
+}
@@ -0,0 +1,90 @@
+package co.eci.snake.bench;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import co.eci.snake.core.Board;
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.Snake;
+import co.eci.snake.core.StepBatch;
+
+// Un tick completo desde un hilo (como el TickEngine): Board.step por serpiente
+// contra un solo Board.stepAll con el mismo lote.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StepAllBenchmark {
+  @Param({ "50", "999", "10000" })
+  public int snakes;
+
+  @Param({ "400x400" })
+  public String board;
+
+  private Board target;
+  private Snake[] all;
+  private StepBatch batch;
+
+  // Se recrea en cada iteración para que las muertes y el crecimiento no se acumulen
+  @Setup(Level.Iteration)
+  public void setUp() {
+    target = BenchBoards.create(board, snakes, 42);
+    List<Snake> list = target.snakes();
+    all = list.toArray(new Snake[0]);
+    batch = new StepBatch(all.length);
+  }
+
+  @Benchmark
+  public int stepEach() {
+    var rnd = ThreadLocalRandom.current();
+    int moved = 0;
+    for (Snake snake : all) {
+      if (rnd.nextInt(10) == 0)
+        snake.turn(Direction.values()[rnd.nextInt(4)]);
+      if (retry(target.step(snake), snake))
+        moved++;
+    }
+    return moved;
+  }
+
+  @Benchmark
+  public int stepAll() {
+    var rnd = ThreadLocalRandom.current();
+    batch.clear();
+    for (Snake snake : all)
+      batch.add(snake, rnd.nextInt(10) == 0 ? Direction.values()[rnd.nextInt(4)] : null);
+    target.stepAll(batch);
+    int moved = 0;
+    for (int i = 0; i < batch.size(); i++) {
+      if (retry(batch.result(i), batch.snake(i)))
+        moved++;
+    }
+    return moved;
+  }
+
+  // Las serpientes "muertas" siguen en el tablero: solo giran para intentar otro camino
+  private static boolean retry(Board.MoveResult res, Snake snake) {
+    if (res == Board.MoveResult.HIT_OBSTACLE || res == Board.MoveResult.DEAD_BY_OTHER
+        || res == Board.MoveResult.DEAD_BY_SELF) {
+      snake.turn(Direction.values()[ThreadLocalRandom.current().nextInt(4)]);
+      return false;
+    }
+    return true;
+  }
+}
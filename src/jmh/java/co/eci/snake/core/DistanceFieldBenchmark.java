@@ -0,0 +1,81 @@
+package co.eci.snake.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Costo de mantener el campo de distancias cuando se come un ratón (sale uno,
+// entra otro en una celda libre): actualización incremental de MouseField
+// contra recalcularlo entero. Con más ratones la región que cambia es menor.
+// Está en el paquete core porque las capas no son públicas.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DistanceFieldBenchmark {
+  @Param({ "6", "64" })
+  public int mice;
+
+  @Param({ "60x40", "400x400" })
+  public String board;
+
+  private Board target;
+  private CellLayer layer;
+  private MouseField field;
+  private int[] cells;
+  private int next = 0;
+
+  @Setup
+  public void setUp() {
+    int x = board.indexOf('x');
+    int width = Integer.parseInt(board.substring(0, x));
+    int height = Integer.parseInt(board.substring(x + 1));
+    target = new Board(width, height, 42);
+    layer = target.layer(Board.ITEM_MOUSE);
+    for (int i = layer.count(); i < mice; i++) {
+      Position p = target.randomEmpty();
+      layer.add(p.x(), p.y());
+    }
+    field = target.mouseField();
+    // Celdas libres por donde rota el ratón que se mueve
+    cells = new int[256];
+    for (int i = 0; i < cells.length; i++) {
+      Position p = target.randomEmpty();
+      cells[i] = p.y() * width + p.x();
+    }
+  }
+
+  @Benchmark
+  public DistanceField incremental() {
+    moveMouse();
+    return field.latest();
+  }
+
+  @Benchmark
+  public DistanceField rebuild() {
+    moveMouse();
+    return new MouseField(target.width(), target.height(), true, layer, target.layer(Board.ITEM_OBSTACLE))
+        .latest();
+  }
+
+  private void moveMouse() {
+    int from = cells[next];
+    next = (next + 1) % cells.length;
+    int to = cells[next];
+    int w = target.width();
+    layer.remove(from % w, from / w);
+    layer.add(to % w, to / w);
+  }
+}
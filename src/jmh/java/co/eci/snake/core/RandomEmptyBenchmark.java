@@ -0,0 +1,50 @@
+package co.eci.snake.core;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Board.randomEmpty con tableros llenos de obstáculos (cada ratón comido agrega uno).
+// Está en el paquete core porque randomEmpty no es público.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RandomEmptyBenchmark {
+  // Fracción de celdas ocupadas por obstáculos (1.0: tablero lleno, devuelve null)
+  @Param({ "0.0", "0.5", "0.9", "0.99", "1.0" })
+  public double fill;
+
+  @Param({ "60x40", "400x400" })
+  public String board;
+
+  private Board target;
+
+  @Setup
+  public void setUp() {
+    int x = board.indexOf('x');
+    int width = Integer.parseInt(board.substring(0, x));
+    int height = Integer.parseInt(board.substring(x + 1));
+    target = new Board(width, height, 42);
+    int obstacles = (int) (width * height * fill);
+    for (int i = 0; i < obstacles; i++)
+      target.spawnObstacle();
+  }
+
+  @Benchmark
+  public Position randomEmpty() {
+    return target.randomEmpty();
+  }
+}
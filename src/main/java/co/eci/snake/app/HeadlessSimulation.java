@@ -0,0 +1,116 @@
+package co.eci.snake.app;
+
+import java.io.IOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import co.eci.snake.core.Board;
+import co.eci.snake.core.ReplayPlayer;
+import co.eci.snake.core.Snake;
+import co.eci.snake.core.World;
+import co.eci.snake.core.engine.TickEngine;
+
+// Corre la carrera sin UI (sin Swing ni GameClock): para pruebas de carga,
+// torneos en lote y CI en servidores sin X11.
+final class HeadlessSimulation {
+  private final Board board;
+  private final TickEngine engine;
+  private final long maxTicks;
+  private final int ticksPerSecond;
+
+  // maxTicks <= 0: hasta que quede una serpiente. ticksPerSecond <= 0: sin límite.
+  HeadlessSimulation(Board board, TickEngine engine, long maxTicks, int ticksPerSecond) {
+    this.board = board;
+    this.engine = engine;
+    this.maxTicks = maxTicks;
+    this.ticksPerSecond = ticksPerSecond;
+  }
+
+  void run() throws InterruptedException {
+    // Número original de cada serpiente, para reportar el orden de muertes
+    List<Snake> initial = board.snakes();
+    Map<Snake, Integer> number = new IdentityHashMap<>();
+    for (int i = 0; i < initial.size(); i++)
+      number.put(initial.get(i), i);
+
+    long period = ticksPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / ticksPerSecond : 0;
+    long firstTick = engine.ticks(); // > 0 si la partida viene de un checkpoint
+    long start = System.nanoTime();
+    long nextTick = start;
+    while ((maxTicks <= 0 || engine.ticks() - firstTick < maxTicks) && engine.aliveCount() > 1) {
+      engine.tick();
+      if (period > 0) {
+        nextTick += period;
+        long wait = nextTick - System.nanoTime();
+        if (wait > 0)
+          TimeUnit.NANOSECONDS.sleep(wait);
+        else
+          nextTick = System.nanoTime(); // atrasado: no acumular ráfagas
+      }
+    }
+    long elapsed = System.nanoTime() - start;
+
+    double seconds = Math.max(elapsed, 1) / 1e9;
+    long ran = engine.ticks() - firstTick;
+    System.out.printf("Ticks: %d en %.3f s (%.0f ticks/s)%n", ran, seconds, ran / seconds);
+    System.out.printf("Movimientos: %d (%.0f movimientos/s)%n", engine.moves(), engine.moves() / seconds);
+    printResults(board, number);
+  }
+
+  // Reproduce un replay sin UI y a máxima velocidad
+  static void replay(ReplayPlayer player) throws IOException, InterruptedException {
+    long start = System.nanoTime();
+    player.play(0, null, false);
+    double seconds = Math.max(System.nanoTime() - start, 1) / 1e9;
+    System.out.printf("Replay: %d eventos (%.3f s grabados) en %.3f s (%.0f eventos/s)%n", player.events(),
+        player.elapsedMicros() / 1e6, seconds, player.events() / seconds);
+
+    List<Snake> snakes = player.snakes();
+    Map<Snake, Integer> number = new IdentityHashMap<>();
+    for (int i = 0; i < snakes.size(); i++)
+      number.put(snakes.get(i), i);
+    printResults(player.board(), number);
+  }
+
+  // Corre un mundo sharded durante seconds segundos y reporta el agregado
+  static void world(World world, long seconds, long tickMillis) throws InterruptedException {
+    long start = System.nanoTime();
+    world.start(tickMillis);
+    TimeUnit.SECONDS.sleep(seconds);
+    world.close();
+    double elapsed = Math.max(System.nanoTime() - start, 1) / 1e9;
+    System.out.printf("Movimientos: %d en %.3f s (%.0f movimientos/s)%n", world.moves(), elapsed,
+        world.moves() / elapsed);
+    System.out.println("Traspasos entre shards: " + world.handoffs() + " (diferidos por cola llena: "
+        + world.handoffsDeferred() + ")");
+    Board.Stats stats = world.getStats();
+    System.out.println("Vivas: " + stats.aliveCount() + " | Muertas: " + stats.deadCount()
+        + " | Choques: " + stats.collisionCount());
+    if (stats.longestAlive() != null)
+      System.out.println("Serpiente viva más larga: longitud " + stats.longestAlive().length());
+    if (stats.firstDead() != null)
+      System.out.println("Primera en morir: longitud " + stats.firstDead().length());
+  }
+
+  private static void printResults(Board board, Map<Snake, Integer> number) {
+    Board.Stats stats = board.getStats();
+    System.out.println("Vivas: " + stats.aliveCount() + " | Muertas: " + stats.deadCount()
+        + " | Choques: " + stats.collisionCount());
+    if (stats.longestAlive() != null) {
+      System.out.println("Serpiente viva más larga: #" + number.get(stats.longestAlive())
+          + " (longitud: " + stats.longestAlive().length() + ")");
+    }
+    if (stats.firstDead() != null) {
+      System.out.println("Peor serpiente (primera en morir): #" + number.get(stats.firstDead().snake())
+          + " (longitud: " + stats.firstDead().length() + ")");
+    }
+
+    System.out.println("Orden de muertes:");
+    for (Board.DeadSnake ds : board.deadSnakes()) {
+      System.out.println("  " + ds.deathOrder() + ". serpiente #" + number.get(ds.snake())
+          + " (longitud: " + ds.length() + ", índice al morir: " + ds.snakeIndex() + ")");
+    }
+  }
+}
@@ -1,21 +1,45 @@
 package co.eci.snake.app;
 
 import co.eci.snake.concurrency.SnakeRunner;
+import co.eci.snake.concurrency.TimingWheel;
 import co.eci.snake.core.Board;
+import co.eci.snake.core.Checkpoint;
 import co.eci.snake.core.Direction;
 import co.eci.snake.core.GameState;
 import co.eci.snake.core.Position;
+import co.eci.snake.core.ReplayPlayer;
+import co.eci.snake.core.ReplayRecorder;
 import co.eci.snake.core.Snake;
+import co.eci.snake.core.SnakeBrain;
+import co.eci.snake.core.World;
 import co.eci.snake.core.engine.GameClock;
+import co.eci.snake.core.engine.TickEngine;
+import co.eci.snake.metrics.Metrics;
+import co.eci.snake.metrics.MetricsReporter;
 import co.eci.snake.ui.legacy.SnakeApp;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.random.RandomGenerator;
+
+import javax.management.JMException;
 
 public final class Main {
+  // Tope para esperar a que las serpientes se detengan antes de un checkpoint
+  private static final long CHECKPOINT_PAUSE_SECONDS = 2;
+
   private Main() {
   }
 
@@ -25,26 +49,89 @@ public final class Main {
     // Todos los hilos comparen el mismo monitor de sincronización.
     GameState gameState = new GameState();
 
-    int numSnakes = getNumSnakes(args);
+    // --replay reproduce una partida grabada en lugar de jugar una nueva
+    String replayFile = getArg(args, "replay", null);
+    if (replayFile != null) {
+      replay(args, gameState, Path.of(replayFile));
+      return;
+    }
+
+    // --shards=CxR corre sin UI un mundo partido en C x R tableros, cada uno
+    // con su propio hilo
+    String shardsArg = getArg(args, "shards", null);
+    if (shardsArg != null) {
+      world(args, shardsArg);
+      return;
+    }
+
+    // --restore continúa una partida guardada con --checkpoint
+    String restoreFile = getArg(args, "restore", null);
+    Checkpoint checkpoint = null;
+    if (restoreFile != null) {
+      try {
+        checkpoint = Checkpoint.read(Path.of(restoreFile));
+      } catch (IOException e) {
+        System.err.println("Cannot restore " + restoreFile + ": " + e.getMessage());
+        return;
+      }
+    }
+
+    int numSnakes = checkpoint != null ? checkpoint.snakeCount() : getNumSnakes(args);
+    SnakeBrain brain = getBrain(args);
+
+    // Motor: "threads" (un hilo virtual por serpiente) o "tick" (determinista)
+    // --headless corre sin Swing y siempre usa el motor por ticks
+    boolean headless = hasFlag(args, "headless");
+    String engine = headless ? "tick" : getArg(args, "engine", "threads");
+    String seedArg = getArg(args, "seed", null);
+    long seed = checkpoint != null ? checkpoint.seed() : parseLong(seedArg, System.nanoTime());
 
     // Crear el tablero
     // El Board contiene la lógica de movimiento.
     // Se crea en Main (no en SnakeApp)
-    int width = 60;
-    int height = 40;
-    Board board = new Board(width, height);
+    // Con semilla (o en modo tick) el tablero es reproducible
+    // Al restaurar, el tablero (y su semilla, si tenía) sale del checkpoint
+    int width = checkpoint != null ? checkpoint.width() : (int) parseLong(getArg(args, "width", null), 60);
+    int height = checkpoint != null ? checkpoint.height() : (int) parseLong(getArg(args, "height", null), 40);
+    boolean deterministic = seedArg != null || "tick".equals(engine);
+    Board board;
+    if (checkpoint != null)
+      board = checkpoint.restoreBoard();
+    else
+      board = deterministic ? new Board(width, height, seed) : new Board(width, height);
+    RandomGenerator startRnd = deterministic ? new Random(seed) : ThreadLocalRandom.current();
+
+    // --record graba todos los eventos del tablero (desde antes de crear las
+    // serpientes). El hook de cierre vacía el log aunque se cierre la ventana.
+    String recordFile = getArg(args, "record", null);
+    if (recordFile != null) {
+      try {
+        ReplayRecorder recorder = ReplayRecorder.start(board, Path.of(recordFile));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+          try {
+            recorder.close();
+          } catch (IOException e) {
+            System.err.println("Replay not saved: " + e.getMessage());
+          }
+        }, "replay-close"));
+        System.out.println("Grabando replay en " + recordFile);
+      } catch (IOException e) {
+        System.err.println("Cannot record replay: " + e.getMessage());
+      }
+    }
 
     // Crear lista para mantener referencias a los hilos
     // Necesitamos llamar join() en main() para esperar a que terminen.
     // Cierre ordenado del programa.
     List<Thread> snakeThreads = new ArrayList<>();
+    List<SnakeRunner> runners = new ArrayList<>();
 
-    // Crear cada serpiente con su SnakeRunner (hilo virtual)
+    // Crear cada serpiente (las restauradas ya están en el tablero)
     // Evitar colisiones en el instante de creación
     Set<Position> occupied = new HashSet<>();
-    for (int i = 0; i < numSnakes; i++) {
+    for (int i = 0; checkpoint == null && i < numSnakes; i++) {
       // Posición inicial libre
-      Position start = findFreeStart(board, occupied);
+      Position start = findFreeStart(board, occupied, startRnd);
       occupied.add(start);
       int x = start.x();
       int y = start.y();
@@ -53,16 +140,112 @@ public final class Main {
       // Snake.of() es el factory method público para crear serpientes.
       Snake snake = Snake.of(x, y, initialDir);
       board.addSnake(snake);
+    }
+
+    // Un SnakeRunner por serpiente, salvo con el TickEngine que las mueve a
+    // todas. Cada runner corre en su hilo virtual o, con --engine=wheel, la
+    // rueda de tiempos los mueve por lotes.
+    if (!"tick".equals(engine)) {
+      List<Snake> snakes = board.snakes();
+      for (int i = 0; i < snakes.size(); i++) {
+        // SnakeRunner llama gameState.awaitIfPaused() para esperar señales.
+        int turbo = checkpoint != null ? checkpoint.turboTicks(i) : 0;
+        SnakeRunner runner = new SnakeRunner(snakes.get(i), board, gameState, turbo, brain);
+        runners.add(runner);
+
+        if (!"wheel".equals(engine))
+          snakeThreads.add(runner.start());
+      }
+    }
+
+    MetricsReporter metrics = startMetrics(args, board);
 
-      // SnakeRunner llama gameState.awaitIfPaused() para esperar señales.
-      SnakeRunner runner = new SnakeRunner(snake, board, gameState);
+    // --checkpoint guarda la partida: con el motor por ticks cada
+    // --checkpoint-every ticks y al terminar; con hilos al cerrar el programa
+    String checkpointArg = getArg(args, "checkpoint", null);
+    Path checkpointFile = checkpointArg != null ? Path.of(checkpointArg) : null;
+    long checkpointEvery = parseLong(getArg(args, "checkpoint-every", null), 0);
 
-      Thread thread = Thread.ofVirtual().start(runner);
-      snakeThreads.add(thread);
+    if (headless) {
+      long ticks = parseLong(getArg(args, "ticks", null), 0);
+      int tps = (int) parseLong(getArg(args, "tps", null), 0);
+      System.out.println("Headless: seed=" + seed + ", snakes=" + numSnakes + ", board=" + width + "x" + height
+          + ", ticks=" + (ticks > 0 ? ticks : "hasta 1 viva") + ", tps=" + (tps > 0 ? tps : "máximo"));
+      try (TickEngine tickEngine = newTickEngine(board, gameState, checkpoint, seed, 0)) {
+        tickEngine.useBrain(brain);
+        if (checkpointFile != null && checkpointEvery > 0)
+          tickEngine.checkpointEvery(checkpointFile, checkpointEvery);
+        new HeadlessSimulation(board, tickEngine, ticks, tps).run();
+        if (checkpointFile != null)
+          saveCheckpoint(tickEngine, checkpointFile);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        if (metrics != null)
+          metrics.close();
+      }
+      return;
+    }
+
+    TickEngine tickEngine = null;
+    if ("tick".equals(engine)) {
+      long tickMs = parseLong(getArg(args, "tick-ms", null), TickEngine.DEFAULT_TICK_MILLIS);
+      System.out.println("Engine tick: seed=" + seed + ", tick=" + tickMs + " ms");
+      tickEngine = newTickEngine(board, gameState, checkpoint, seed, tickMs);
+      tickEngine.useBrain(brain);
+      if (checkpointFile != null && checkpointEvery > 0)
+        tickEngine.checkpointEvery(checkpointFile, checkpointEvery);
+      tickEngine.start();
+    }
+
+    TimingWheel wheel = null;
+    if ("wheel".equals(engine)) {
+      long tickMs = parseLong(getArg(args, "wheel-tick-ms", null), TimingWheel.DEFAULT_TICK_MILLIS);
+      System.out.println("Engine wheel: ranura=" + tickMs + " ms, " + runners.size() + " serpientes");
+      wheel = new TimingWheel(runners, gameState, tickMs);
+      wheel.start();
+    }
+
+    // Al cerrar la ventana (System.exit) se guarda el último estado
+    if (checkpointFile != null) {
+      TickEngine te = tickEngine;
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+        if (te != null) {
+          te.close();
+          try {
+            te.join();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          saveCheckpoint(te, checkpointFile);
+        } else {
+          saveCheckpoint(board, runners, gameState, seed, checkpointFile);
+        }
+      }, "checkpoint"));
     }
 
     // Lanzar la UI pasando componentes inyección de dependencias
-    SnakeApp.launch(gameState, board);
+    SnakeApp.launch(gameState, board, tickEngine != null);
+
+    if (tickEngine != null) {
+      try {
+        tickEngine.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        tickEngine.close();
+      }
+    }
+
+    if (wheel != null) {
+      try {
+        wheel.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } finally {
+        wheel.close();
+      }
+    }
 
     // Esperar a que terminen todos los hilos de las serpientes.
     try {
@@ -73,6 +256,133 @@ public final class Main {
       Thread.currentThread().interrupt();
       System.err.println("Main thread interrupted: " + e.getMessage());
     }
+    if (metrics != null)
+      metrics.close();
+  }
+
+  // Métricas en vivo (con -Dsnake.metrics=true): por JMX y, con --metrics=N,
+  // un resumen de texto cada N segundos
+  private static MetricsReporter startMetrics(String[] args, Board board) {
+    if (!Metrics.ENABLED) {
+      if (getArg(args, "metrics", null) != null)
+        System.err.println("--metrics needs -Dsnake.metrics=true");
+      return null;
+    }
+    MetricsReporter reporter = new MetricsReporter(board, System.out, (int) parseLong(getArg(args, "metrics", null), 0));
+    try {
+      reporter.registerMBeans();
+    } catch (JMException e) {
+      System.err.println("Cannot register metrics MBeans: " + e.getMessage());
+    }
+    reporter.start();
+    return reporter;
+  }
+
+  private static TickEngine newTickEngine(Board board, GameState gameState, Checkpoint checkpoint, long seed,
+      long tickMs) {
+    return checkpoint != null ? new TickEngine(board, gameState, checkpoint, tickMs)
+        : new TickEngine(board, gameState, seed, tickMs);
+  }
+
+  // Motor por ticks detenido o entre ticks
+  private static void saveCheckpoint(TickEngine engine, Path file) {
+    long start = System.nanoTime();
+    try {
+      engine.writeCheckpoint(file);
+      System.out.printf("Checkpoint en %s (tick %d, %.1f ms)%n", file, engine.ticks(),
+          (System.nanoTime() - start) / 1e6);
+    } catch (IOException e) {
+      System.err.println("Checkpoint failed: " + e.getMessage());
+    }
+  }
+
+  // Con hilos por serpiente no hay borde de tick: se pausa y se espera a que
+  // todas las serpientes vivas estén detenidas antes de copiar el estado. Va
+  // la semilla de la partida (tick 0): restaurado con -Dengine=tick sigue con
+  // la misma.
+  private static void saveCheckpoint(Board board, List<SnakeRunner> runners, GameState gameState, long seed,
+      Path file) {
+    try {
+      gameState.pause().get(CHECKPOINT_PAUSE_SECONDS, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException | CancellationException | TimeoutException e) {
+      System.err.println("Checkpoint without full pause: " + e);
+    }
+    List<Snake> alive = board.snakes();
+    Map<Snake, SnakeRunner> bySnake = new IdentityHashMap<>();
+    for (SnakeRunner r : runners)
+      bySnake.put(r.snake(), r);
+    int[] turbo = new int[alive.size()];
+    for (int i = 0; i < alive.size(); i++) {
+      SnakeRunner r = bySnake.get(alive.get(i));
+      turbo[i] = r != null ? r.turboTicks() : 0;
+    }
+    try {
+      Checkpoint.write(file, board, alive, turbo, 0, seed);
+      System.out.println("Checkpoint en " + file + " (" + alive.size() + " serpientes)");
+    } catch (IOException e) {
+      System.err.println("Checkpoint failed: " + e.getMessage());
+    }
+  }
+
+  // Reproduce un log de --record: en la UI a --replay-speed (1 = tiempo real,
+  // 0 = sin pausas) o con --headless a máxima velocidad e imprime el resultado
+  private static void replay(String[] args, GameState gameState, Path file) {
+    MetricsReporter metrics = null;
+    try (ReplayPlayer player = ReplayPlayer.open(file)) {
+      metrics = startMetrics(args, player.board());
+      if (hasFlag(args, "headless")) {
+        HeadlessSimulation.replay(player);
+        return;
+      }
+      double speed = Double.parseDouble(getArg(args, "replay-speed", "1"));
+      player.prepare();
+      if (player.board().snakes().isEmpty()) {
+        System.err.println("Replay has no snakes: " + file);
+        return;
+      }
+      player.board().publishFrame();
+      SnakeApp.launch(gameState, player.board(), true);
+      player.play(speed, gameState, true);
+    } catch (IOException | NumberFormatException e) {
+      System.err.println("Cannot replay " + file + ": " + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      if (metrics != null)
+        metrics.close();
+    }
+  }
+
+  // Mundo sharded: --width/--height son del mundo completo, --seconds la
+  // duración y --tick-ms el periodo de cada shard (0 = máxima velocidad)
+  private static void world(String[] args, String shardsArg) {
+    int cols, rows;
+    try {
+      int x = shardsArg.indexOf('x');
+      cols = Integer.parseInt(shardsArg.substring(0, x));
+      rows = Integer.parseInt(shardsArg.substring(x + 1));
+    } catch (RuntimeException e) {
+      System.err.println("Invalid shards argument (expected CxR): " + shardsArg);
+      return;
+    }
+    int width = (int) parseLong(getArg(args, "width", null), 60L * cols);
+    int height = (int) parseLong(getArg(args, "height", null), 40L * rows);
+    long seed = parseLong(getArg(args, "seed", null), System.nanoTime());
+    long seconds = parseLong(getArg(args, "seconds", null), 10);
+    long tickMs = parseLong(getArg(args, "tick-ms", null), 0);
+    int numSnakes = getNumSnakes(args);
+    try (World world = new World(width, height, cols, rows, seed)) {
+      world.populate(numSnakes, seed);
+      System.out.println("World: seed=" + seed + ", snakes=" + numSnakes + ", mundo=" + width + "x" + height
+          + ", shards=" + cols + "x" + rows + ", tick=" + (tickMs > 0 ? tickMs + " ms" : "máximo"));
+      HeadlessSimulation.world(world, seconds, tickMs);
+    } catch (IllegalArgumentException e) {
+      System.err.println("Cannot create world: " + e.getMessage());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
   }
 
   // Método auxiliar para extraer número de serpientes desde argumentos.
@@ -104,14 +414,58 @@ public final class Main {
     return numSnakes;
   }
 
+  // --brain=random|greedy|flood (random por defecto)
+  private static SnakeBrain getBrain(String[] args) {
+    String name = getArg(args, "brain", "random");
+    try {
+      return SnakeBrain.of(name);
+    } catch (IllegalArgumentException e) {
+      System.err.println(e.getMessage() + ", using random");
+      return SnakeBrain.random();
+    }
+  }
+
+  // Lee "--name=valor" o la propiedad de sistema -Dname=valor
+  private static String getArg(String[] args, String name, String def) {
+    String prop = System.getProperty(name);
+    if (prop != null)
+      return prop;
+    String prefix = "--" + name + "=";
+    for (String arg : args) {
+      if (arg.startsWith(prefix))
+        return arg.substring(prefix.length());
+    }
+    return def;
+  }
+
+  private static boolean hasFlag(String[] args, String name) {
+    if (Boolean.getBoolean(name))
+      return true;
+    for (String arg : args) {
+      if (arg.equals("--" + name))
+        return true;
+    }
+    return false;
+  }
+
+  private static long parseLong(String value, long def) {
+    if (value == null)
+      return def;
+    try {
+      return Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      System.err.println("Invalid numeric argument: " + e.getMessage());
+      return def;
+    }
+  }
+
   // Buscar posición libre al crear serpientes
 
-  private static Position findFreeStart(Board board, Set<Position> occupied) {
-    var rnd = ThreadLocalRandom.current();
+  private static Position findFreeStart(Board board, Set<Position> occupied, RandomGenerator rnd) {
     int width = board.width();
     int height = board.height();
-    int guard = 0;
-    while (guard++ < width * height * 2) {
+    long guard = 0;
+    while (guard++ < 2L * width * height) {
       Position p = new Position(rnd.nextInt(width), rnd.nextInt(height));
       if (occupied.contains(p))
         continue;
@@ -1,60 +1,135 @@
 package co.eci.snake.concurrency;
 
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import co.eci.snake.core.Board;
 import co.eci.snake.core.Direction;
 import co.eci.snake.core.GameState;
 import co.eci.snake.core.Snake;
+import co.eci.snake.core.SnakeBrain;
+import co.eci.snake.metrics.Metrics;
 
 public final class SnakeRunner implements Runnable {
   private final Snake snake;
   private final Board board;
   private final int baseSleepMs = 80;
   private final int turboSleepMs = 40;
-  private int turboTicks = 0;
+  // Volatile: un checkpoint la lee desde otro hilo con la serpiente en pausa
+  private volatile int turboTicks = 0;
+  // Decide los giros (random por defecto)
+  private final SnakeBrain brain;
+
+  // Cadencia del último movimiento, para medir el desvío (un solo hilo a la vez)
+  private long lastMoveNanos = 0;
+  private int lastDelayMs = 0;
 
   // Nos da las senales de pausa
   private final GameState gameState;
+  // true si start() ya lo registró en la barrera de pausa
+  private volatile boolean registered = false;
 
   public SnakeRunner(Snake snake, Board board, GameState gameState) {
+    this(snake, board, gameState, 0, SnakeBrain.random());
+  }
+
+  // Con los ticks de turbo que le quedaban (restauración de un checkpoint)
+  public SnakeRunner(Snake snake, Board board, GameState gameState, int turboTicks) {
+    this(snake, board, gameState, turboTicks, SnakeBrain.random());
+  }
+
+  public SnakeRunner(Snake snake, Board board, GameState gameState, int turboTicks, SnakeBrain brain) {
     this.snake = snake;
     this.board = board;
     this.gameState = gameState;
+    this.turboTicks = turboTicks;
+    this.brain = brain;
+  }
+
+  public Snake snake() {
+    return snake;
+  }
+
+  public int turboTicks() {
+    return turboTicks;
+  }
+
+  // Arranca el runner en su propio hilo virtual. Se registra en la barrera de
+  // pausa antes de arrancar: una pausa inmediata también lo espera.
+  public Thread start() {
+    gameState.register();
+    registered = true;
+    return Thread.ofVirtual().start(this);
   }
 
   @Override
   public void run() {
+    if (!registered) {
+      gameState.register();
+      registered = true;
+    }
     try {
       while (!Thread.currentThread().isInterrupted()) {
 
         // Senal de pausa
+        if (gameState.isPaused())
+          resetCadence();
         gameState.awaitIfPaused();
-        maybeTurn();
-        var res = board.step(snake);
-        if (res == Board.MoveResult.HIT_OBSTACLE) {
-          randomTurn();
-        } else if (res == Board.MoveResult.ATE_TURBO) {
-          turboTicks = 100;
-        } else if (res == Board.MoveResult.DEAD_BY_OTHER || res == Board.MoveResult.DEAD_BY_SELF) {
-          // Registrar muerte, incrementar contador terminar hilo
-          board.killSnake(snake, res == Board.MoveResult.DEAD_BY_OTHER);
+        int sleep = stepOnce();
+        if (sleep < 0)
           break;
-        }
-        int sleep = (turboTicks > 0) ? turboSleepMs : baseSleepMs;
-        if (turboTicks > 0)
-          turboTicks--;
         Thread.sleep(sleep);
       }
     } catch (InterruptedException ie) {
       Thread.currentThread().interrupt();
+    } finally {
+      gameState.deregister();
     }
   }
 
-  private void maybeTurn() {
-    double p = (turboTicks > 0) ? 0.05 : 0.10;
-    if (ThreadLocalRandom.current().nextDouble() < p)
+  // Un movimiento de la serpiente: devuelve los ms hasta el siguiente, o -1 si
+  // murió. Lo usan run() y la rueda de tiempos (TimingWheel).
+  int stepOnce() {
+    if (Metrics.ENABLED)
+      recordJitter();
+    maybeTurn();
+    var res = board.step(snake);
+    if (res == Board.MoveResult.HIT_OBSTACLE) {
       randomTurn();
+    } else if (res == Board.MoveResult.ATE_TURBO) {
+      turboTicks = 100;
+    } else if (res == Board.MoveResult.DEAD_BY_OTHER || res == Board.MoveResult.DEAD_BY_SELF) {
+      // Registrar muerte, incrementar contador terminar hilo
+      board.killSnake(snake, res == Board.MoveResult.DEAD_BY_OTHER);
+      return -1;
+    }
+    int sleep = (turboTicks > 0) ? turboSleepMs : baseSleepMs;
+    if (turboTicks > 0)
+      turboTicks--;
+    lastDelayMs = sleep;
+    return sleep;
+  }
+
+  // Tras una pausa el primer movimiento no cuenta como desvío de cadencia
+  void resetCadence() {
+    lastMoveNanos = 0;
+  }
+
+  private void recordJitter() {
+    long now = System.nanoTime();
+    if (lastMoveNanos != 0) {
+      long late = now - lastMoveNanos - TimeUnit.MILLISECONDS.toNanos(lastDelayMs);
+      Metrics.MOVE_JITTER.record(Math.abs(late));
+    }
+    lastMoveNanos = now;
+  }
+
+  // La vista del tablero es compartida: el campo de distancias se calcula una
+  // vez por cambio de ratones, no por serpiente
+  private void maybeTurn() {
+    Direction dir = brain.decide(snake, board.brainView(), turboTicks > 0, ThreadLocalRandom.current().nextLong());
+    if (dir != null)
+      snake.turn(dir);
   }
 
   private void randomTurn() {
@@ -0,0 +1,167 @@
+package co.eci.snake.concurrency;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import co.eci.snake.core.GameState;
+import co.eci.snake.metrics.Metrics;
+
+// Alternativa a un hilo virtual dormido por serpiente: una rueda de tiempos
+// (hashed timing wheel) con ranuras de tickMillis. Un solo hilo avanza la rueda
+// a tiempo absoluto (sin deriva); todas las serpientes de la ranura actual se
+// mueven como un lote en un ForkJoinPool y se vuelven a agendar según el delay
+// que devuelve SnakeRunner.stepOnce() (el turbo cae en otra ranura).
+//
+// Solo el hilo de la rueda toca las ranuras, así que no llevan locks. Es el
+// único participante de la pausa: mientras espera, ningún lote está corriendo.
+public final class TimingWheel implements AutoCloseable {
+  public static final long DEFAULT_TICK_MILLIS = 10;
+  private static final int SLOTS = 256; // potencia de 2
+  private static final int PARALLEL_THRESHOLD = 64;
+
+  private final GameState gameState;
+  private final long tickMillis;
+  private final long tickNanos;
+  private final ForkJoinPool pool;
+  private final AtomicReference<Thread> loop = new AtomicReference<>();
+
+  // Ranura i: runners[i][0..count[i]) con las vueltas que les faltan
+  private final SnakeRunner[][] runners = new SnakeRunner[SLOTS][];
+  private final int[][] rounds = new int[SLOTS][];
+  private final int[] count = new int[SLOTS];
+  private long cursor = 0; // ranura actual (sin módulo)
+  private int alive;
+
+  // Lote en curso: delays devueltos por stepOnce
+  private SnakeRunner[] batch = new SnakeRunner[16];
+  private int[] delays = new int[16];
+
+  // Las serpientes arrancan repartidas en el primer intervalo base (80 ms) para
+  // no mover a todas en la misma ranura
+  public TimingWheel(List<SnakeRunner> snakes, GameState gameState, long tickMillis) {
+    if (tickMillis <= 0)
+      throw new IllegalArgumentException("tickMillis must be positive");
+    this.gameState = gameState;
+    this.tickMillis = tickMillis;
+    this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+    this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    for (int i = 0; i < SLOTS; i++) {
+      runners[i] = new SnakeRunner[4];
+      rounds[i] = new int[4];
+    }
+    int spread = (int) Math.max(1, 80 / tickMillis);
+    for (int i = 0; i < snakes.size(); i++)
+      schedule(snakes.get(i), 1 + i % spread);
+    alive = snakes.size();
+  }
+
+  public long tickMillis() {
+    return tickMillis;
+  }
+
+  public void start() {
+    Thread t = new Thread(this::runLoop, "timing-wheel");
+    if (loop.compareAndSet(null, t)) {
+      gameState.register();
+      t.start();
+    }
+  }
+
+  private void runLoop() {
+    try {
+      long next = System.nanoTime();
+      while (!Thread.currentThread().isInterrupted() && alive > 0) {
+        if (gameState.isPaused()) {
+          gameState.awaitIfPaused();
+          next = System.nanoTime(); // sin ráfaga para recuperar la pausa
+          for (int i = 0; i < SLOTS; i++)
+            for (int j = 0; j < count[i]; j++)
+              runners[i][j].resetCadence();
+        }
+        long wait = next - System.nanoTime();
+        if (wait > 0)
+          TimeUnit.NANOSECONDS.sleep(wait);
+        if (Metrics.ENABLED)
+          Metrics.WHEEL_LATENESS.record(Math.max(0, System.nanoTime() - next));
+        advance(); // atrasado: las ranuras pendientes se procesan seguidas
+        next += tickNanos;
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    } finally {
+      gameState.deregister();
+    }
+  }
+
+  // Mueve el lote de la ranura actual y lo reagenda
+  private void advance() {
+    int slot = (int) (cursor & (SLOTS - 1));
+    cursor++;
+    int n = 0;
+    // Los que aún tienen vueltas pendientes quedan en la ranura
+    int keep = 0;
+    SnakeRunner[] rs = runners[slot];
+    int[] rd = rounds[slot];
+    for (int i = 0; i < count[slot]; i++) {
+      if (rd[i] > 0) {
+        rs[keep] = rs[i];
+        rd[keep++] = rd[i] - 1;
+      } else {
+        if (n == batch.length) {
+          batch = Arrays.copyOf(batch, n * 2);
+          delays = new int[n * 2];
+        }
+        batch[n++] = rs[i];
+      }
+    }
+    Arrays.fill(rs, keep, count[slot], null);
+    count[slot] = keep;
+
+    int size = n;
+    if (size >= PARALLEL_THRESHOLD)
+      pool.submit(() -> IntStream.range(0, size).parallel().forEach(i -> delays[i] = batch[i].stepOnce())).join();
+    else
+      for (int i = 0; i < size; i++)
+        delays[i] = batch[i].stepOnce();
+
+    for (int i = 0; i < size; i++) {
+      if (delays[i] < 0)
+        alive--;
+      else
+        schedule(batch[i], Math.max(1, Math.round((double) delays[i] / tickMillis)));
+      batch[i] = null;
+    }
+  }
+
+  // ticks >= 1 ranuras después de la actual
+  private void schedule(SnakeRunner runner, long ticks) {
+    long at = cursor + ticks - 1;
+    int slot = (int) (at & (SLOTS - 1));
+    int c = count[slot];
+    if (c == runners[slot].length) {
+      runners[slot] = Arrays.copyOf(runners[slot], c * 2);
+      rounds[slot] = Arrays.copyOf(rounds[slot], c * 2);
+    }
+    runners[slot][c] = runner;
+    rounds[slot][c] = (int) ((ticks - 1) / SLOTS);
+    count[slot] = c + 1;
+  }
+
+  public void join() throws InterruptedException {
+    Thread t = loop.get();
+    if (t != null)
+      t.join();
+  }
+
+  @Override
+  public void close() {
+    Thread t = loop.get();
+    if (t != null)
+      t.interrupt();
+    pool.shutdownNow();
+  }
+}
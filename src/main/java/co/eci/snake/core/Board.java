@@ -1,38 +1,112 @@
 package co.eci.snake.core;
 
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.random.RandomGenerator;
 import java.time.Instant;
 
+import co.eci.snake.metrics.Metrics;
+
 public final class Board {
   private final int width;
   private final int height;
+  // true en los shards de un World (ver MoveResult.EXITED)
+  private final boolean openEdges;
 
-  // CopyOnWriteArrayList para serpientes
-  private final List<Snake> snakes = new CopyOnWriteArrayList<>();
+  // Serpientes vivas en una tabla de ranuras (id - 1) con bitmap de vivas:
+  // morir no copia nada y recorrerlas no crea listas
+  private final SnakeTable snakes = new SnakeTable();
 
-  // Registro de muertes y colisiones entre serpientes
-  private final List<DeadSnake> deadSnakes = new CopyOnWriteArrayList<>();
+  // Registro de muertes (sin locks, por orden de muerte) y colisiones entre serpientes
+  private final DeathLog deadSnakes = new DeathLog();
   private final AtomicInteger deathCounter = new AtomicInteger(0);
   private final AtomicInteger collisionCounter = new AtomicInteger(0);
 
-  // Lock separado solo para items. NO usar synchronized en todo Board
-  private final Object itemsLock = new Object();
-
-  private final Set<Position> mice = new HashSet<>();
-  private final Set<Position> obstacles = new HashSet<>();
-  private final Set<Position> turbo = new HashSet<>();
-  private final Map<Position, Position> teleports = new HashMap<>();
+  // Estadísticas incrementales: ranking de vivas por largo (lo actualiza cada
+  // serpiente al crecer) y la primera muerte, que se fija una sola vez
+  private final Leaderboard leaderboard = new Leaderboard();
+  private final AtomicReference<DeadSnake> firstDead = new AtomicReference<>();
+
+  // Grilla de ocupación: colisiones en O(1) sin snapshots de los cuerpos
+  private final OccupancyGrid grid;
+
+  // Items como bitsets por tipo (un bit por celda). Se modifican con el lock
+  // de la franja de filas correspondiente; se leen sin lock.
+  private final CellLayer mice;
+  private final CellLayer obstacles;
+  private final CellLayer turbo;
+
+  // Franjas de filas, cada una con su propio lock.
+  // Serpientes en regiones distintas no compiten entre sí.
+  private static final int MAX_STRIPES = 16;
+  private final ItemStripe[] stripes;
+  private final int rowsPerStripe;
+
+  // Los teleports solo se crean en el constructor: se leen sin lock.
+  // teleportTarget[celda] = índice de la salida, o -1 si no hay teleport.
+  private final int[] teleportTarget;
+  private final int[] teleportCells; // entradas empaquetadas, para los frames
+  private final Map<Position, Position> teleports;
+
+  // Frames para el renderer: triple buffer, se publican una vez por paso de
+  // simulación y la UI los lee sin locks
+  private final FrameExchange frames;
+  private final Object frameLock = new Object(); // un escritor a la vez
+  private long frameSequence = 0;
+  // Aviso de frame nuevo (el reloj de la UI); se llama fuera de frameLock
+  private volatile Runnable frameListener;
+
+  // Con semilla usa un generador compartido (thread-safe, estado guardable en
+  // checkpoints) para que la partida sea reproducible; sin semilla,
+  // ThreadLocalRandom sin contención.
+  private final SeededRandom seeded;
+
+  // Vista para los SnakeBrain: se rehace cuando cambian ratones u obstáculos
+  private volatile BrainView brainView;
+  // Distancias al ratón más cercano; se crea con el primer lector
+  private volatile MouseField mouseField;
+  private final Object fieldLock = new Object();
+
+  // Grabación de replays (null = no se graba): una lectura volatile por evento
+  private volatile EventSink events;
+
+  // Códigos de item en los eventos
+  static final int ITEM_MOUSE = 0;
+  static final int ITEM_OBSTACLE = 1;
+  static final int ITEM_TURBO = 2;
+
+  // Observador de todo lo que cambia el tablero. Las celdas van como índice
+  // y * width + x. Se llama desde los hilos que mueven serpientes (a veces con
+  // el lock de una franja tomado): debe ser rápido, thread-safe y no bloquear.
+  interface EventSink {
+    void spawned(int item, int cell);
+
+    // Cabeza de una serpiente nueva; el resto del cuerpo llega con segment()
+    void snakeAdded(int snakeId, int headCell, Direction dir, int maxLength);
+
+    void segment(int snakeId, int cell);
+
+    void turned(int snakeId, Direction dir);
+
+    // cell es la celda destino (o la que intentó si no se movió)
+    void stepped(int snakeId, MoveResult result, int cell, boolean grew);
+
+    void killed(int snakeId, boolean collidedWithOther);
+  }
 
   public enum MoveResult {
-    MOVED, ATE_MOUSE, HIT_OBSTACLE, ATE_TURBO, TELEPORTED, DEAD_BY_OTHER, DEAD_BY_SELF
+    MOVED, ATE_MOUSE, HIT_OBSTACLE, ATE_TURBO, TELEPORTED, DEAD_BY_OTHER, DEAD_BY_SELF,
+    // Solo en shards de un World: la cabeza saldría del tablero (no se movió)
+    EXITED
   }
 
   // REQ-UI: Registro inmutable de muerte (thread-safe por diseño)
@@ -41,18 +115,82 @@ public final class Board {
   // REQ-UI: Snapshot inmutable de estadísticas para evitar tearing
   public record Stats(int aliveCount, int deadCount, int collisionCount, Snake longestAlive, DeadSnake firstDead) {}
 
+  // Puesto del ranking: largo al momento de la consulta
+  public record Leader(Snake snake, int length) {}
+
+  // Contención acumulada del lock de una franja de items (filas [fromRow, toRow)).
+  // waitNanos y holdNanos quedan en 0 sin -Dsnake.metrics=true
+  public record StripeStats(int stripe, int fromRow, int toRow, long acquisitions, long contended,
+      long waitNanos, long holdNanos) {}
+
+  // Las celdas de los cuerpos y del Frame van empaquetadas como x << 16 | y:
+  // cada coordenada tiene que entrar en 16 bits
+  static final int MAX_DIMENSION = 0xFFFF;
+
   public Board(int width, int height) {
+    this(width, height, null, null, false);
+  }
+
+  public Board(int width, int height, long seed) {
+    this(width, height, new SeededRandom(seed), null, false);
+  }
+
+  // Shard de un World: los bordes no dan la vuelta, step devuelve EXITED y el
+  // World pasa la serpiente al shard vecino
+  static Board shard(int width, int height, long seed) {
+    return new Board(width, height, new SeededRandom(seed), null, true);
+  }
+
+  // Tablero vacío con teleports dados (pares de índices de celda): base para
+  // reproducir un replay o restaurar un checkpoint. Con rngState != null usa
+  // un generador con ese estado.
+  static Board empty(int width, int height, int[] teleportPairs, Long rngState) {
+    return new Board(width, height, rngState != null ? new SeededRandom(rngState) : null,
+        Objects.requireNonNull(teleportPairs, "teleportPairs"), false);
+  }
+
+  private Board(int width, int height, SeededRandom seeded, int[] teleportPairs, boolean openEdges) {
     if (width <= 0 || height <= 0)
       throw new IllegalArgumentException("Board dimensions must be positive");
+    if (width > MAX_DIMENSION || height > MAX_DIMENSION)
+      throw new IllegalArgumentException("Board dimensions must be at most " + MAX_DIMENSION);
+    // Índices de celda (y * width + x) y arreglos por celda son int
+    if ((long) width * height > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("Board has too many cells: " + width + "x" + height);
     this.width = width;
     this.height = height;
-    for (int i = 0; i < 6; i++)
-      mice.add(randomEmpty());
-    for (int i = 0; i < 4; i++)
-      obstacles.add(randomEmpty());
-    for (int i = 0; i < 3; i++)
-      turbo.add(randomEmpty());
-    createTeleportPairs(2);
+    this.openEdges = openEdges;
+    this.seeded = seeded;
+    this.grid = new OccupancyGrid(width, height);
+    this.frames = new FrameExchange(width, height);
+    this.mice = new CellLayer(width, height);
+    this.obstacles = new CellLayer(width, height);
+    this.turbo = new CellLayer(width, height);
+    this.teleportTarget = new int[width * height];
+    Arrays.fill(teleportTarget, -1);
+    this.rowsPerStripe = (height + MAX_STRIPES - 1) / MAX_STRIPES;
+    int stripeCount = (height + rowsPerStripe - 1) / rowsPerStripe;
+    this.stripes = new ItemStripe[stripeCount];
+    for (int i = 0; i < stripeCount; i++)
+      stripes[i] = new ItemStripe(i * rowsPerStripe, Math.min(height, (i + 1) * rowsPerStripe), width);
+    if (teleportPairs == null) {
+      for (int i = 0; i < 6; i++)
+        spawn(mice);
+      for (int i = 0; i < 4; i++)
+        spawn(obstacles);
+      for (int i = 0; i < 3; i++)
+        spawn(turbo);
+      this.teleports = createTeleportPairs(2);
+    } else {
+      Map<Position, Position> pairs = new LinkedHashMap<>();
+      for (int i = 0; i + 1 < teleportPairs.length; i += 2)
+        linkTeleport(teleportPairs[i], teleportPairs[i + 1], pairs);
+      this.teleports = Collections.unmodifiableMap(pairs);
+    }
+    this.teleportCells = new int[teleports.size()];
+    int k = 0;
+    for (Position p : teleports.keySet())
+      teleportCells[k++] = Snake.pack(p.x(), p.y());
   }
 
   public int width() {
@@ -63,174 +201,680 @@ public final class Board {
     return height;
   }
 
-  // Sincronización mínima en getters de UI
+  // Getters de UI: vistas de solo lectura sobre los bitsets, sin locks ni
+  // copias. Reflejan el estado vivo; quien necesite una foto debe copiarla.
 
   public Set<Position> mice() {
-    synchronized (itemsLock) {
-      return new HashSet<>(mice);
-    }
+    return mice.view();
   }
 
   public Set<Position> obstacles() {
-    synchronized (itemsLock) {
-      return new HashSet<>(obstacles);
-    }
+    return obstacles.view();
   }
 
   public Set<Position> turbo() {
-    synchronized (itemsLock) {
-      return new HashSet<>(turbo);
-    }
+    return turbo.view();
   }
 
   public Map<Position, Position> teleports() {
-    synchronized (itemsLock) {
-      return new HashMap<>(teleports);
+    return teleports;
+  }
+
+  // Arma un frame con el estado actual y lo publica. Lo llama quien avanza la
+  // simulación (TickEngine al final de cada tick, o el reloj de la UI).
+  public void publishFrame() {
+    synchronized (frameLock) {
+      Frame frame = frames.back();
+      frame.begin(++frameSequence);
+      // Recorrido de bits sin locks: cada celda se lee de forma consistente
+      for (int i = obstacles.nextSetBit(0); i >= 0; i = obstacles.nextSetBit(i + 1))
+        frame.addObstacle(Snake.pack(i % width, i / width));
+      for (int i = mice.nextSetBit(0); i >= 0; i = mice.nextSetBit(i + 1))
+        frame.addMouse(Snake.pack(i % width, i / width));
+      for (int i = turbo.nextSetBit(0); i >= 0; i = turbo.nextSetBit(i + 1))
+        frame.addTurbo(Snake.pack(i % width, i / width));
+      for (int cell : teleportCells)
+        frame.addTeleport(cell);
+      for (Snake s : snakes)
+        frame.addSnake(s);
+      frames.publish();
     }
+    Runnable listener = frameListener;
+    if (listener != null)
+      listener.run();
+  }
+
+  // Quien quiera saber que hay un frame nuevo sin consultar latestFrame
+  public void onFramePublished(Runnable listener) {
+    this.frameListener = listener;
+  }
+
+  // Último frame publicado: una lectura atómica, sin locks. Pensado para un
+  // único lector (el renderer); el frame vale hasta su siguiente llamada.
+  public Frame latestFrame() {
+    return frames.latest();
+  }
+
+  // Vista del tablero para decidir giros (ver SnakeBrain). Es la misma
+  // instancia mientras no cambien ratones ni obstáculos: el campo de
+  // distancias se calcula una vez por cambio, no por serpiente.
+  public BrainView brainView() {
+    long version = mice.version() + obstacles.version();
+    BrainView view = brainView;
+    if (view == null || view.version() != version) {
+      view = new BrainView(this, width, height, !openEdges, grid, obstacles, version);
+      brainView = view; // dos hilos pueden crearla a la vez: ambas sirven
+    }
+    return view;
+  }
+
+  // Distancia de cada celda al ratón más cercano (p. ej. para pintar un mapa de
+  // calor). Sin locks ni esperas: una versión completa, quizás sin los cambios
+  // que otro hilo está aplicando en este momento. El campo se mantiene de forma
+  // incremental desde la primera llamada.
+  public DistanceField distanceField() {
+    return mouseField().current();
+  }
+
+  MouseField mouseField() {
+    MouseField f = mouseField;
+    if (f == null) {
+      synchronized (fieldLock) {
+        f = mouseField;
+        if (f == null) {
+          f = new MouseField(width, height, !openEdges, mice, obstacles);
+          mouseField = f;
+        }
+      }
+    }
+    return f;
+  }
+
+  // Reporte de contención por franja
+  public List<StripeStats> stripeStats() {
+    List<StripeStats> out = new ArrayList<>(stripes.length);
+    for (int i = 0; i < stripes.length; i++)
+      out.add(stripes[i].stats(i));
+    return out;
+  }
+
+  private ItemStripe stripeOf(int y) {
+    return stripes[y / rowsPerStripe];
   }
 
   // Región crítica MÍNIMA en step()
 
   public MoveResult step(Snake snake) {
     Objects.requireNonNull(snake, "snake");
-    var head = snake.head();
-    var dir = snake.direction();
-    Position next = new Position(head.x() + dir.dx, head.y() + dir.dy).wrap(width, height);
-
-    // Detectar colisiones ANTES del movimiento
-
-    for (Snake other : snakes) {
-      var body = other.snapshot(); // ReadLock en Snake
-      if (other == snake) {
-        boolean first = true;
-        for (Position p : body) {
-          if (first) {
-            first = false; // saltar la cabeza actual
-            continue;
-          }
-          if (p.equals(next)) {
-            return MoveResult.DEAD_BY_SELF;
-          }
-        }
-      } else {
-        if (body.contains(next)) {
-          return MoveResult.DEAD_BY_OTHER;
+    if (!Metrics.ENABLED)
+      return move(snake, snake.direction(), null);
+    long start = System.nanoTime();
+    try {
+      return move(snake, snake.direction(), null);
+    } finally {
+      Metrics.STEP.record(System.nanoTime() - start);
+    }
+  }
+
+  // Mueve un lote en una pasada: aplica los giros, toma una sola vez (en orden)
+  // las franjas que el lote puede tocar y mueve en el orden del lote. Reglas:
+  // - Las celdas se reclaman en orden: si dos serpientes van a la misma celda,
+  //   la de menor índice la gana y la otra muere (DEAD_BY_OTHER).
+  // - Los cuerpos cuentan como estaban al llegar cada una: una cola que avanzó
+  //   antes en el lote deja su celda libre para las siguientes.
+  // - Choque de frente (cada una va a la cabeza de la otra): mueren las dos,
+  //   porque las muertes se registran después del lote (killSnake lo hace quien
+  //   llama, en orden) y ninguna cabeza se libera.
+  // - Los items comidos se reponen al final, ya sin franjas tomadas.
+  public void stepAll(StepBatch batch) {
+    Objects.requireNonNull(batch, "batch");
+    int n = batch.size();
+    if (n == 0)
+      return;
+    long start = Metrics.ENABLED ? System.nanoTime() : 0;
+    batch.eaten = 0;
+
+    // Franjas de los destinos (y de la salida si es un teleport)
+    int mask = 0;
+    for (int i = 0; i < n; i++) {
+      Snake snake = batch.snake(i);
+      Direction turn = batch.turn(i);
+      if (turn != null)
+        snake.turn(turn);
+      int head = snake.headCell();
+      Direction dir = snake.direction();
+      batch.heading(i, dir);
+      int nx = wrap(Snake.cellX(head) + dir.dx, width);
+      int ny = wrap(Snake.cellY(head) + dir.dy, height);
+      mask |= 1 << (ny / rowsPerStripe);
+      int exit = teleportTarget[ny * width + nx];
+      if (exit >= 0)
+        mask |= 1 << (exit / width / rowsPerStripe);
+    }
+
+    // Orden ascendente: nunca hay dos hilos esperándose en orden inverso
+    int locked = 0;
+    try {
+      for (int s = 0; s < stripes.length; s++) {
+        if ((mask & (1 << s)) != 0) {
+          stripes[s].lock();
+          locked |= 1 << s;
         }
       }
+      for (int i = 0; i < n; i++)
+        batch.result(i, move(batch.snake(i), batch.heading(i), batch));
+    } finally {
+      for (int s = 0; s < stripes.length; s++) {
+        if ((locked & (1 << s)) != 0)
+          stripes[s].unlock();
+      }
     }
 
-    // Variables para decisiones (calculadas dentro del lock)
-    boolean hitObstacle;
-    boolean ateMouse;
-    boolean ateTurbo;
-    boolean teleported = false;
+    for (int i = 0; i < batch.eaten; i++)
+      respawnAfterMouse();
+    if (Metrics.ENABLED)
+      Metrics.STEP_BATCH.record(System.nanoTime() - start);
+  }
 
-    // REGIÓN CRÍTICA MÍNIMA: Solo proteger acceso a colecciones compartidas
-    synchronized (itemsLock) {
-      // Verificar obstáculo
-      hitObstacle = obstacles.contains(next);
-      if (hitObstacle)
-        return MoveResult.HIT_OBSTACLE;
+  // batch != null: stepAll ya tiene tomadas las franjas (las de dir) y repone
+  // los items al final
+  private MoveResult move(Snake snake, Direction dir, StepBatch batch) {
+    int head = snake.headCell();
+    int rx = Snake.cellX(head) + dir.dx;
+    int ry = Snake.cellY(head) + dir.dy;
+    if (openEdges && (rx < 0 || rx >= width || ry < 0 || ry >= height))
+      return MoveResult.EXITED;
+    int nx = wrap(rx, width);
+    int ny = wrap(ry, height);
+
+    // Reclamar la celda destino ANTES del movimiento (CAS, sin lock).
+    // Si el CAS falla, el dueño actual es con quien chocamos.
+    int id = snake.id();
+    boolean claimed = true;
+    int owner = grid.claim(nx, ny, id);
+    if (owner != OccupancyGrid.EMPTY) {
+      if (owner != id)
+        return emitStep(id, MoveResult.DEAD_BY_OTHER, nx, ny, false);
+      if (Snake.pack(nx, ny) != head) // la cabeza actual no cuenta
+        return emitStep(id, MoveResult.DEAD_BY_SELF, nx, ny, false);
+      claimed = false; // tablero de ancho/alto 1: la celda ya era nuestra
+    }
 
-      // Verificar teleport
-      if (teleports.containsKey(next)) {
-        next = teleports.get(next);
+    boolean hitObstacle = false;
+    boolean ateMouse = false;
+    boolean ateTurbo = false;
+    boolean teleported = false;
+    int blockedBy = OccupancyGrid.EMPTY;
+
+    // Verificar teleport (tabla inmutable, sin lock): la salida también se reclama
+    int exit = teleportTarget[ny * width + nx];
+    if (exit >= 0) {
+      int ex = exit % width, ey = exit / width;
+      blockedBy = grid.claim(ex, ey, id);
+      if (blockedBy == OccupancyGrid.EMPTY) {
+        if (claimed)
+          grid.release(nx, ny, id);
+        nx = ex;
+        ny = ey;
+        claimed = true;
         teleported = true;
       }
+    }
+
+    // REGIÓN CRÍTICA MÍNIMA: solo la franja de la celda destino, y adentro
+    // solo pruebas de bits
+    if (blockedBy == OccupancyGrid.EMPTY) {
+      ItemStripe stripe = stripeOf(ny);
+      if (batch == null)
+        stripe.lock();
+      try {
+        hitObstacle = obstacles.contains(nx, ny);
+        if (!hitObstacle) {
+          ateMouse = mice.remove(nx, ny);
+          ateTurbo = turbo.remove(nx, ny);
+          if (ateMouse || ateTurbo)
+            stripe.release(nx, ny);
+        }
+      } finally {
+        if (batch == null)
+          stripe.unlock();
+      } // FIN REGIÓN CRÍTICA
+    }
 
-      // Comer ratón (operación atómica: remove + add)
-      ateMouse = mice.remove(next);
-      ateTurbo = turbo.remove(next);
+    // Rebote u salida de teleport ocupada: devolver la celda reclamada
+    if (hitObstacle || blockedBy != OccupancyGrid.EMPTY) {
+      if (claimed)
+        grid.release(nx, ny, id);
+      if (hitObstacle)
+        return emitStep(id, MoveResult.HIT_OBSTACLE, nx, ny, false);
+      return emitStep(id, blockedBy == id ? MoveResult.DEAD_BY_SELF : MoveResult.DEAD_BY_OTHER, nx, ny, false);
+    }
 
-      // Si comió ratón, agregar nuevo ratón y obstáculo
-      if (ateMouse) {
-        mice.add(randomEmpty());
-        obstacles.add(randomEmpty());
-        if (ThreadLocalRandom.current().nextDouble() < 0.2)
-          turbo.add(randomEmpty());
-      }
-    } // FIN REGIÓN CRÍTICA
+    // Si comió ratón, agregar nuevo ratón y obstáculo. Cada spawn bloquea solo
+    // la franja que elige, nunca dos a la vez.
+    if (ateMouse) {
+      if (batch != null)
+        batch.eaten++;
+      else
+        respawnAfterMouse();
+    }
+
+    // Resultado basado en lo que pasó
+    MoveResult result = ateTurbo ? MoveResult.ATE_TURBO
+        : ateMouse ? MoveResult.ATE_MOUSE
+        : teleported ? MoveResult.TELEPORTED
+        : MoveResult.MOVED;
+
+    // El evento va antes de soltar la cola: quien ocupe esa celda después
+    // queda grabado después
+    emitStep(id, result, nx, ny, ateMouse);
 
     // Movimiento de serpiente FUERA del lock
-    snake.advance(next, ateMouse);
+    snake.advance(nx, ny, ateMouse);
+    return result;
+  }
 
-    // Retornar resultado basado en lo que pasó
-    if (ateTurbo)
-      return MoveResult.ATE_TURBO;
-    if (ateMouse)
-      return MoveResult.ATE_MOUSE;
-    if (teleported)
-      return MoveResult.TELEPORTED;
-    return MoveResult.MOVED;
+  private void respawnAfterMouse() {
+    spawn(mice);
+    spawn(obstacles);
+    if (random().nextDouble() < 0.2)
+      spawn(turbo);
+  }
+
+  private MoveResult emitStep(int id, MoveResult result, int x, int y, boolean grew) {
+    EventSink sink = events;
+    if (sink != null)
+      sink.stepped(id, result, y * width + x, grew);
+    return result;
+  }
+
+  // Wrap-around de una coordenada que se sale a lo sumo una celda
+  private static int wrap(int v, int size) {
+    return v < 0 ? v + size : (v >= size ? v - size : v);
+  }
+
+  private RandomGenerator random() {
+    return seeded != null ? seeded : ThreadLocalRandom.current();
   }
 
-  private void createTeleportPairs(int pairs) {
+  // Solo en el constructor (un hilo): las celdas de teleport salen del índice
+  private Map<Position, Position> createTeleportPairs(int pairs) {
+    Map<Position, Position> pairsMap = new LinkedHashMap<>();
     for (int i = 0; i < pairs; i++) {
       Position a = randomEmpty();
+      if (a == null)
+        break;
+      stripeOf(a.y()).occupy(a.x(), a.y());
       Position b = randomEmpty();
-      teleports.put(a, b);
-      teleports.put(b, a);
+      if (b == null) {
+        stripeOf(a.y()).release(a.x(), a.y());
+        break;
+      }
+      linkTeleport(a.y() * width + a.x(), b.y() * width + b.x(), pairsMap);
     }
+    return Collections.unmodifiableMap(pairsMap);
   }
 
-  private Position randomEmpty() {
-    var rnd = ThreadLocalRandom.current();
-    Position p;
-    int guard = 0;
-    do {
-      p = new Position(rnd.nextInt(width), rnd.nextInt(height));
-      guard++;
-      if (guard > width * height * 2)
-        break;
-    } while (mice.contains(p) || obstacles.contains(p) || turbo.contains(p) || teleports.containsKey(p));
-    return p;
+  private void linkTeleport(int a, int b, Map<Position, Position> pairs) {
+    int ax = a % width, ay = a / width, bx = b % width, by = b / width;
+    stripeOf(ay).occupy(ax, ay);
+    stripeOf(by).occupy(bx, by);
+    teleportTarget[a] = b;
+    teleportTarget[b] = a;
+    pairs.put(new Position(ax, ay), new Position(bx, by));
+    pairs.put(new Position(bx, by), new Position(ax, ay));
+  }
+
+  // Celda libre sin colocar nada, o null si no queda ninguna (visible en el
+  // paquete para los benchmarks)
+  Position randomEmpty() {
+    return spawn(null);
+  }
+
+  // Agrega un obstáculo en una celda libre (para llenar tableros en benchmarks)
+  Position spawnObstacle() {
+    return spawn(obstacles);
+  }
+
+  // Sorteos antes de pasar a recorrer las celdas libres una por una
+  private static final int SPAWN_ATTEMPTS = 32;
+
+  // Elige una celda libre uniforme y, si layer no es null, coloca ahí el item.
+  // Devuelve null si el tablero está lleno. Las franjas se sortean según su
+  // número de celdas libres y dentro de la franja se elige del índice en O(1);
+  // solo se bloquea la franja elegida. Los cuerpos no están en el índice (se
+  // mueven sin lock): la celda se descarta si la grilla dice que tiene dueño.
+  private Position spawn(CellLayer layer) {
+    var rnd = random();
+    for (int attempt = 0; attempt < SPAWN_ATTEMPTS; attempt++) {
+      int total = 0;
+      for (ItemStripe stripe : stripes)
+        total += stripe.freeCount();
+      if (total == 0)
+        return null;
+      int r = rnd.nextInt(total);
+      ItemStripe stripe = stripes[stripes.length - 1];
+      for (ItemStripe s : stripes) {
+        r -= s.freeCount();
+        if (r < 0) {
+          stripe = s;
+          break;
+        }
+      }
+      stripe.lock();
+      try {
+        int n = stripe.freeCount();
+        if (n == 0)
+          continue; // otro hilo la llenó entre el conteo y el lock
+        int cell = stripe.freeCell(rnd.nextInt(n));
+        if (grid.ownerAt(Snake.cellX(cell), Snake.cellY(cell)) == OccupancyGrid.EMPTY)
+          return place(stripe, cell, layer);
+      } finally {
+        stripe.unlock();
+      }
+    }
+
+    // Casi todo lo libre está bajo serpientes: buscar en orden
+    int offset = rnd.nextInt(stripes.length);
+    for (int k = 0; k < stripes.length; k++) {
+      ItemStripe stripe = stripes[(offset + k) % stripes.length];
+      stripe.lock();
+      try {
+        for (int i = 0, n = stripe.freeCount(); i < n; i++) {
+          int cell = stripe.freeCell(i);
+          if (grid.ownerAt(Snake.cellX(cell), Snake.cellY(cell)) == OccupancyGrid.EMPTY)
+            return place(stripe, cell, layer);
+        }
+      } finally {
+        stripe.unlock();
+      }
+    }
+    return null;
+  }
+
+  // Con el lock de la franja tomado: el evento se emite antes de soltarlo para
+  // que nadie pueda comerse el item antes de que quede grabado
+  private Position place(ItemStripe stripe, int cell, CellLayer layer) {
+    int x = Snake.cellX(cell), y = Snake.cellY(cell);
+    if (layer != null) {
+      layer.add(x, y);
+      stripe.occupy(x, y);
+      EventSink sink = events;
+      if (sink != null)
+        sink.spawned(itemCode(layer), y * width + x);
+    }
+    return new Position(x, y);
+  }
+
+  private int itemCode(CellLayer layer) {
+    return layer == mice ? ITEM_MOUSE : layer == obstacles ? ITEM_OBSTACLE : ITEM_TURBO;
+  }
+
+  CellLayer layer(int item) {
+    return switch (item) {
+      case ITEM_MOUSE -> mice;
+      case ITEM_OBSTACLE -> obstacles;
+      case ITEM_TURBO -> turbo;
+      default -> throw new IllegalArgumentException("Unknown item: " + item);
+    };
+  }
+
+  // --- Grabación y reproducción de replays ---
+
+  // Empieza a emitir eventos (null deja de emitir). Antes emite el estado
+  // actual (items y serpientes) para que el log no dependa de la semilla.
+  // Pensado para llamarse antes de arrancar la simulación.
+  void record(EventSink sink) {
+    if (sink != null) {
+      for (CellLayer layer : new CellLayer[] { mice, obstacles, turbo }) {
+        for (int i = layer.nextSetBit(0); i >= 0; i = layer.nextSetBit(i + 1))
+          sink.spawned(itemCode(layer), i);
+      }
+      for (Snake s : snakes)
+        emitSnake(sink, s);
+    }
+    events = sink;
+    for (Snake s : snakes)
+      s.listen(sink);
+  }
+
+  private void emitSnake(EventSink sink, Snake snake) {
+    int id = snake.id();
+    snake.forEachCell((i, x, y) -> {
+      if (i == 0)
+        sink.snakeAdded(id, y * width + x, snake.direction(), snake.maxLength());
+      else
+        sink.segment(id, y * width + x);
+    });
+  }
+
+  // Coloca un item grabado
+  void replaySpawn(int item, int cell) {
+    int x = cell % width, y = cell / width;
+    ItemStripe stripe = stripeOf(y);
+    stripe.lock();
+    try {
+      layer(item).add(x, y);
+      stripe.occupy(x, y);
+    } finally {
+      stripe.unlock();
+    }
+  }
+
+  // Mueve la serpiente a la celda grabada comiendo lo que haya ahí
+  void replayStep(Snake snake, int cell, boolean grew) {
+    int x = cell % width, y = cell / width;
+    ItemStripe stripe = stripeOf(y);
+    stripe.lock();
+    try {
+      boolean ate = mice.remove(x, y);
+      ate |= turbo.remove(x, y);
+      if (ate)
+        stripe.release(x, y);
+    } finally {
+      stripe.unlock();
+    }
+    snake.advance(x, y, grew);
+  }
+
+  // --- Checkpoints (ver Checkpoint) ---
+
+  // Estado del generador con semilla, o null si el tablero no tiene semilla
+  Long rngState() {
+    return seeded != null ? seeded.state() : null;
+  }
+
+  int deaths() {
+    return deathCounter.get();
+  }
+
+  int collisions() {
+    return collisionCounter.get();
+  }
+
+  // Entradas de teleport como pares (desde, hacia) de índices de celda
+  int[] teleportPairs() {
+    int[] out = new int[teleportCells.length * 2];
+    for (int i = 0; i < teleportCells.length; i++) {
+      int from = Snake.cellY(teleportCells[i]) * width + Snake.cellX(teleportCells[i]);
+      out[2 * i] = from;
+      out[2 * i + 1] = teleportTarget[from];
+    }
+    return out;
+  }
+
+  // Índice de celdas libres de cada franja, en su orden interno
+  int[][] freeIndex() {
+    int[][] out = new int[stripes.length][];
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i].lock();
+      try {
+        out[i] = stripes[i].freeSnapshot();
+      } finally {
+        stripes[i].unlock();
+      }
+    }
+    return out;
+  }
+
+  void restoreFreeIndex(int[][] free) {
+    if (free.length != stripes.length)
+      throw new IllegalArgumentException("Free index does not match board");
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i].lock();
+      try {
+        stripes[i].restoreFree(free[i]);
+      } finally {
+        stripes[i].unlock();
+      }
+    }
+  }
+
+  // Muertes y contadores de un checkpoint, sobre un tablero recién creado
+  void restoreDeaths(List<DeadSnake> dead, int deaths, int collisions) {
+    for (DeadSnake ds : dead) {
+      deadSnakes.put(ds);
+      DeadSnake first = firstDead.get();
+      if (first == null || ds.deathOrder() < first.deathOrder())
+        firstDead.set(ds);
+    }
+    deathCounter.set(deaths);
+    collisionCounter.set(collisions);
   }
 
   // Método addSnake sin sincronización
 
   public void addSnake(Snake snake) {
     Objects.requireNonNull(snake, "snake cannot be null");
-    snakes.add(snake);
+    attach(snake, snakes.allocate());
+  }
+
+  private void attach(Snake snake, int id) {
+    int seq = snakes.nextSequence(); // lugar en snakes() y desempate del ranking
+    snake.attach(grid, id, seq, leaderboard);
+    EventSink sink = events;
+    if (sink != null) {
+      emitSnake(sink, snake);
+      snake.listen(sink);
+    }
+    snakes.add(id, seq, snake);
   }
 
   // Método snakes() sin sincronización
 
   public List<Snake> snakes() {
-    return List.copyOf(snakes); // Retorna vista inmutable adicional por seguridad
+    return snakes.snapshot(); // inmutable; la misma lista mientras nadie nazca ni muera
+  }
+
+  // --- Traspasos entre shards (ver World) ---
+
+  static final int ENTRY_RESERVED = 0;
+  static final int ENTRY_OCCUPIED = -1; // otra serpiente en la celda de entrada
+  static final int ENTRY_BLOCKED = -2;  // obstáculo en la celda de entrada
+
+  // Lo llama el shard vecino desde su hilo: reserva la celda de entrada (CAS
+  // en la grilla con OccupancyGrid.RESERVED, como un paso) y devuelve un
+  // ENTRY_*. Reclamar y mirar el obstáculo van con el lock de la franja, el
+  // mismo con el que spawn mira la grilla antes de poner un item: o spawn ve
+  // la reserva y elige otra celda, o acá se ve su obstáculo. El id se asigna
+  // recién en admit: un intento que no llega no gasta ranura.
+  int reserveEntry(int x, int y) {
+    ItemStripe stripe = stripeOf(y);
+    stripe.lock();
+    try {
+      if (grid.claim(x, y, OccupancyGrid.RESERVED) != OccupancyGrid.EMPTY)
+        return ENTRY_OCCUPIED;
+      if (obstacles.contains(x, y)) {
+        grid.release(x, y, OccupancyGrid.RESERVED);
+        return ENTRY_BLOCKED;
+      }
+      return ENTRY_RESERVED;
+    } finally {
+      stripe.unlock();
+    }
+  }
+
+  // El traspaso no se pudo encolar: devolver la celda
+  void cancelEntry(int x, int y) {
+    grid.release(x, y, OccupancyGrid.RESERVED);
+  }
+
+  // Desde el hilo de este shard: agrega una serpiente de una sola celda en su
+  // entrada reservada. Un item en esa celda se consume sin efecto (y el ratón
+  // se repone).
+  void admit(Snake snake) {
+    int head = snake.headCell();
+    int x = Snake.cellX(head), y = Snake.cellY(head);
+    boolean ateMouse;
+    ItemStripe stripe = stripeOf(y);
+    stripe.lock();
+    try {
+      ateMouse = mice.remove(x, y);
+      boolean ateTurbo = turbo.remove(x, y);
+      if (ateMouse || ateTurbo)
+        stripe.release(x, y);
+    } finally {
+      stripe.unlock();
+    }
+    int id = snakes.allocate();
+    grid.handOver(x, y, OccupancyGrid.RESERVED, id);
+    attach(snake, id);
+    if (ateMouse)
+      respawnAfterMouse();
   }
 
-  //  Registrar muerte y retirar serpiente del tablero
+  // La serpiente pasó a otro shard: sale del tablero sin contar como muerte
+  void transfer(Snake snake) {
+    int id = snake.id();
+    if (snakes.remove(id, snake)) {
+      snake.detach();
+      snakes.free(id);
+    }
+  }
+
+  // Vivas sin copiar (para el hilo dueño de un shard)
+  Iterable<Snake> liveSnakes() {
+    return snakes;
+  }
+
+  // Muertes ordenadas por deathOrder
+  public List<DeadSnake> deadSnakes() {
+    return deadSnakes.list(deathCounter.get());
+  }
+
+  //  Registrar muerte y retirar serpiente del tablero. snakeIndex es su
+  //  posición en snakes() justo antes de morir.
   public void killSnake(Snake snake, boolean collidedWithOther) {
     Objects.requireNonNull(snake, "snake cannot be null");
+    int id = snake.id();
+    if (!snakes.remove(id, snake))
+      return; // no está en este tablero o ya murió
+    int indexAtDeath = snakes.rank(id); // vivas dadas de alta antes que ella
     int order = deathCounter.incrementAndGet();
     if (collidedWithOther) {
       collisionCounter.incrementAndGet();
     }
-    int length = snake.snapshot().size();
-    int indexAtDeath = snakes.indexOf(snake);
-    deadSnakes.add(new DeadSnake(snake, length, order, Instant.now(), indexAtDeath));
-    snakes.remove(snake); // al remover, la UI deja de dibujarla
+    EventSink sink = events;
+    if (sink != null)
+      sink.killed(id, collidedWithOther);
+    DeadSnake dead = new DeadSnake(snake, snake.length(), order, Instant.now(), indexAtDeath);
+    deadSnakes.put(dead);
+    if (order == 1)
+      firstDead.compareAndSet(null, dead);
+    snake.detach(); // libera sus celdas en la grilla; la UI ya no la dibuja
+    snakes.free(id); // recién ahora: ninguna celda queda con su id
   }
 
-  // REQ-UI: Snapshot consistente para UI (sin tearing)
+  // REQ-UI: Snapshot para la UI sin recorrer serpientes ni muertes: O(1)
   public Stats getStats() {
-    Snake longestAlive = null;
-    int maxLen = 0;
-    for (Snake s : snakes) {
-      int len = s.snapshot().size();
-      if (len > maxLen) {
-        maxLen = len;
-        longestAlive = s;
-      }
-    }
-
-    DeadSnake firstDead = null;
-    for (DeadSnake ds : deadSnakes) {
-      if (firstDead == null || ds.deathOrder() < firstDead.deathOrder()) {
-        firstDead = ds;
-      }
-    }
+    return new Stats(snakes.size(), deathCounter.get(), collisionCounter.get(), leaderboard.longest(),
+        firstDead.get());
+  }
 
-    return new Stats(snakes.size(), deadSnakes.size(), collisionCounter.get(), longestAlive, firstDead);
+  // Las n serpientes vivas más largas, de mayor a menor: O(log n + n)
+  public List<Leader> leaderboard(int n) {
+    if (n < 0)
+      throw new IllegalArgumentException("n must be non-negative");
+    return leaderboard.top(n);
   }
 }
@@ -0,0 +1,89 @@
+package co.eci.snake.core;
+
+// Lo que ve un SnakeBrain del tablero: obstáculos y cuerpos (lecturas sin lock
+// de la grilla y las capas) y la distancia al ratón más cercano. Board entrega
+// la misma vista mientras no cambien los ratones ni los obstáculos; la versión
+// del campo de distancias se toma una vez por vista y solo si algún cerebro la
+// pide (con random el Board nunca lo mantiene).
+public final class BrainView {
+  public static final int UNREACHABLE = DistanceField.UNREACHABLE;
+
+  private final int width;
+  private final int height;
+  private final boolean wrap;
+  private final Board board;
+  private final OccupancyGrid grid;
+  private final CellLayer obstacles;
+  private final long version;
+  private volatile DistanceField distances;
+
+  BrainView(Board board, int width, int height, boolean wrap, OccupancyGrid grid, CellLayer obstacles,
+      long version) {
+    this.board = board;
+    this.width = width;
+    this.height = height;
+    this.wrap = wrap;
+    this.grid = grid;
+    this.obstacles = obstacles;
+    this.version = version;
+  }
+
+  public int width() {
+    return width;
+  }
+
+  public int height() {
+    return height;
+  }
+
+  long version() {
+    return version;
+  }
+
+  // Pasos hasta el ratón más cercano, o UNREACHABLE
+  public int distanceToMouse(int x, int y) {
+    return field().at(x, y);
+  }
+
+  // Celda de índice cell sin obstáculo ni serpiente
+  boolean free(int cell) {
+    int x = cell % width, y = cell / width;
+    return !obstacles.contains(x, y) && grid.ownerAt(x, y) == OccupancyGrid.EMPTY;
+  }
+
+  int distance(int cell) {
+    return field().at(cell);
+  }
+
+  // Índice de la celda vecina en dir, o -1 si sale de un tablero sin wrap
+  int neighbor(int cell, Direction dir) {
+    int nx = cell % width + dir.dx, ny = cell / width + dir.dy;
+    if (nx < 0 || nx >= width || ny < 0 || ny >= height) {
+      if (!wrap)
+        return -1;
+      nx = Math.floorMod(nx, width);
+      ny = Math.floorMod(ny, height);
+    }
+    return ny * width + nx;
+  }
+
+  // Índice de la cabeza de la serpiente
+  int head(Snake snake) {
+    int head = snake.headCell();
+    return Snake.cellY(head) * width + Snake.cellX(head);
+  }
+
+  private DistanceField field() {
+    DistanceField f = distances;
+    if (f == null) {
+      synchronized (this) {
+        f = distances;
+        if (f == null) {
+          f = board.mouseField().latest();
+          distances = f;
+        }
+      }
+    }
+    return f;
+  }
+}
@@ -0,0 +1,161 @@
+package co.eci.snake.core;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Capa de items como bitset: un bit por celda (índice y * width + x).
+// Las escrituras se hacen con el lock de la franja de la fila, pero una misma
+// palabra de 64 bits puede cruzar dos franjas, así que se escribe con CAS.
+// Las lecturas no necesitan lock: cada bit es consistente por sí solo.
+final class CellLayer {
+  private final int width;
+  private final int cells;
+  private final AtomicLongArray bits;
+  private final Set<Position> view = new View();
+  // Cambia con cada bit que se agrega o se quita (para cachés derivadas)
+  private final AtomicLong version = new AtomicLong();
+  // Aviso por celda cambiada (ver MouseField); null = nadie escucha
+  private volatile Listener listener;
+
+  @FunctionalInterface
+  interface Listener {
+    void changed(int index);
+  }
+
+  CellLayer(int width, int height) {
+    this.width = width;
+    this.cells = width * height;
+    this.bits = new AtomicLongArray((cells + 63) >>> 6);
+  }
+
+  boolean contains(int x, int y) {
+    return contains(y * width + x);
+  }
+
+  boolean contains(int i) {
+    return (bits.get(i >>> 6) & (1L << i)) != 0;
+  }
+
+  // true si la celda no estaba marcada
+  boolean add(int x, int y) {
+    int i = y * width + x;
+    long mask = 1L << i;
+    while (true) {
+      long word = bits.get(i >>> 6);
+      if ((word & mask) != 0)
+        return false;
+      if (bits.compareAndSet(i >>> 6, word, word | mask)) {
+        changed(i);
+        return true;
+      }
+    }
+  }
+
+  // true si la celda estaba marcada
+  boolean remove(int x, int y) {
+    int i = y * width + x;
+    long mask = 1L << i;
+    while (true) {
+      long word = bits.get(i >>> 6);
+      if ((word & mask) == 0)
+        return false;
+      if (bits.compareAndSet(i >>> 6, word, word & ~mask)) {
+        changed(i);
+        return true;
+      }
+    }
+  }
+
+  // Primera celda marcada con índice >= from, o -1 (como BitSet.nextSetBit)
+  int nextSetBit(int from) {
+    if (from >= cells)
+      return -1;
+    int w = from >>> 6;
+    long word = bits.get(w) & (-1L << from);
+    while (true) {
+      if (word != 0)
+        return (w << 6) + Long.numberOfTrailingZeros(word);
+      if (++w >= bits.length())
+        return -1;
+      word = bits.get(w);
+    }
+  }
+
+  private void changed(int i) {
+    version.incrementAndGet();
+    Listener l = listener;
+    if (l != null)
+      l.changed(i);
+  }
+
+  void listen(Listener listener) {
+    this.listener = listener;
+  }
+
+  long version() {
+    return version.get();
+  }
+
+  int count() {
+    int n = 0;
+    for (int w = 0; w < bits.length(); w++)
+      n += Long.bitCount(bits.get(w));
+    return n;
+  }
+
+  // Palabras crudas del bitset (para checkpoints)
+  int words() {
+    return bits.length();
+  }
+
+  long word(int w) {
+    return bits.get(w);
+  }
+
+  int width() {
+    return width;
+  }
+
+  // Vista de solo lectura, viva: no copia nada
+  Set<Position> view() {
+    return view;
+  }
+
+  private final class View extends AbstractSet<Position> {
+    @Override
+    public boolean contains(Object o) {
+      return o instanceof Position p && p.x() >= 0 && p.x() < width && p.y() >= 0
+          && p.y() * width + p.x() < cells && CellLayer.this.contains(p.x(), p.y());
+    }
+
+    @Override
+    public int size() {
+      return count();
+    }
+
+    @Override
+    public Iterator<Position> iterator() {
+      return new Iterator<>() {
+        private int next = nextSetBit(0);
+
+        @Override
+        public boolean hasNext() {
+          return next >= 0;
+        }
+
+        @Override
+        public Position next() {
+          if (next < 0)
+            throw new NoSuchElementException();
+          Position p = new Position(next % width, next / width);
+          next = nextSetBit(next + 1);
+          return p;
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package co.eci.snake.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Cola acotada sin locks de índices de celda, muchos productores y un
+// consumidor: la HandoffQueue con un int[] en lugar de objetos, así que
+// encolar no crea nada (MouseField la llena desde los pasos, con el lock de la
+// franja tomado). Si está llena offer() devuelve false y el productor decide.
+final class CellQueue {
+  static final int EMPTY = -1;
+
+  private final int mask;
+  private final int[] cells;
+  // sequence[i] == pos: libre para el productor de pos; == pos + 1: listo para leer
+  private final AtomicLongArray sequence;
+  private final AtomicLong tail = new AtomicLong();
+  private long head = 0; // solo el consumidor
+
+  CellQueue(int capacity) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+      throw new IllegalArgumentException("capacity must be a power of two");
+    this.mask = capacity - 1;
+    this.cells = new int[capacity];
+    this.sequence = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++)
+      sequence.set(i, i);
+  }
+
+  // cell >= 0
+  boolean offer(int cell) {
+    while (true) {
+      long pos = tail.get();
+      int i = (int) pos & mask;
+      long seq = sequence.get(i);
+      if (seq < pos)
+        return false; // llena: el consumidor no liberó este slot todavía
+      if (seq == pos && tail.compareAndSet(pos, pos + 1)) {
+        cells[i] = cell;
+        sequence.set(i, pos + 1); // publica: escritura volatile después del dato
+        return true;
+      }
+      // otro productor tomó pos: reintentar con el tail nuevo
+    }
+  }
+
+  // Solo el consumidor: la siguiente celda o EMPTY si no hay
+  int poll() {
+    int i = (int) head & mask;
+    if (sequence.get(i) != head + 1)
+      return EMPTY;
+    int cell = cells[i];
+    sequence.set(i, head + mask + 1); // libera el slot para la siguiente vuelta
+    head++;
+    return cell;
+  }
+}
@@ -0,0 +1,404 @@
+package co.eci.snake.core;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+// Foto completa de una partida en un archivo mapeado a memoria (.snkc), con
+// secciones de tamaño fijo que se leen en su lugar sin deserializar todo:
+//   cabecera | items: 3 bitsets | teleports: pares (desde, hacia)
+//   | serpientes vivas: registros fijos | celdas de los cuerpos | muertes: registros fijos
+//   | índice de celdas libres por franja (su orden decide los próximos sorteos)
+// Las celdas van como índice y * width + x. El estado se copia entre pasos (en
+// el borde de un tick o con las serpientes en pausa) con capture(); escribir el
+// Snapshot (mapear, force, renombrar) puede ir después en otro hilo.
+public final class Checkpoint {
+  private static final int MAGIC = 0x534E4B43; // "SNKC"
+  private static final int VERSION = 1;
+
+  private static final int HEADER_BYTES = 128;
+  // Serpiente: dirección, maxLength, largo, turbo, primera celda, slot del motor
+  private static final int SNAKE_BYTES = 24;
+  // Muerte: largo, orden, índice al morir, cabeza, segundos, nanos, (libre)
+  private static final int DEAD_BYTES = 32;
+
+  // Cabecera: posiciones fijas
+  private static final int H_MAGIC = 0;
+  private static final int H_VERSION = 4;
+  private static final int H_WIDTH = 8;
+  private static final int H_HEIGHT = 12;
+  private static final int H_TICK = 16;
+  private static final int H_SEED = 24;
+  private static final int H_RNG = 32;
+  private static final int H_FLAGS = 40;
+  private static final int H_DEATHS = 44;
+  private static final int H_COLLISIONS = 48;
+  private static final int H_SNAKES = 52;
+  private static final int H_DEAD = 56;
+  private static final int H_ITEM_WORDS = 60;
+  private static final int H_TELEPORTS = 64;
+  private static final int H_CELLS = 68;
+  private static final int H_ITEMS_AT = 72;
+  private static final int H_TELEPORTS_AT = 80;
+  private static final int H_SNAKES_AT = 88;
+  private static final int H_CELLS_AT = 96;
+  private static final int H_DEAD_AT = 104;
+  private static final int H_FREE_AT = 112;
+  private static final int H_STRIPES = 120;
+
+  private static final int FLAG_SEEDED = 1;
+
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final ByteBuffer buf;
+
+  private Checkpoint(ByteBuffer buf) throws IOException {
+    this.buf = buf;
+    if (buf.capacity() < HEADER_BYTES || buf.getInt(H_MAGIC) != MAGIC)
+      throw new IOException("Not a snake checkpoint file");
+    if (buf.getInt(H_VERSION) != VERSION)
+      throw new IOException("Unsupported checkpoint version: " + buf.getInt(H_VERSION));
+  }
+
+  // Escribe la partida: tablero, serpientes vivas en el orden dado con sus
+  // ticks de turbo, y el tick y la semilla del motor. Va a un archivo temporal
+  // que se baja a disco (force) y después se renombra: un corte a mitad, o
+  // uno de energía después del renombre, no deja un checkpoint a medias.
+  public static void write(Path file, Board board, List<Snake> snakes, int[] turboTicks, long tick, long seed)
+      throws IOException {
+    int[] slots = new int[snakes.size()];
+    for (int i = 0; i < slots.length; i++)
+      slots[i] = i;
+    write(file, board, snakes, turboTicks, slots, tick, seed);
+  }
+
+  // slots: número de cada serpiente en el motor que la mueve (TickEngine lo
+  // usa en su hash; así la partida restaurada sigue igual)
+  public static void write(Path file, Board board, List<Snake> snakes, int[] turboTicks, int[] slots, long tick,
+      long seed) throws IOException {
+    capture(board, snakes, turboTicks, slots, tick, seed).writeTo(file);
+  }
+
+  // Copia el estado a arreglos planos, sin tocar disco. Debe llamarse entre
+  // pasos; el Snapshot se puede escribir después desde otro hilo.
+  public static Snapshot capture(Board board, List<Snake> snakes, int[] turboTicks, int[] slots, long tick,
+      long seed) {
+    Objects.requireNonNull(board, "board");
+    if (turboTicks.length < snakes.size() || slots.length < snakes.size())
+      throw new IllegalArgumentException("turboTicks and slots must have one entry per snake");
+    return new Snapshot(board, snakes, turboTicks, slots, tick, seed);
+  }
+
+  // Partida copiada por capture: solo arreglos propios, nada compartido con el
+  // Board ni con las serpientes
+  public static final class Snapshot {
+    private final int width;
+    private final int height;
+    private final long tick;
+    private final long seed;
+    private final Long rng;
+    private final int deaths;
+    private final int collisions;
+    private final int itemWords;
+    private final long[] items; // mouse, obstacle, turbo: itemWords palabras cada uno
+    private final int[] teleports;
+    private final int[] snakes; // registro de SNAKE_BYTES por serpiente, en ints
+    private final int[] cells;
+    private final int cellCount;
+    private final int[] dead; // largo, orden, índice al morir, cabeza
+    private final long[] deadTimes; // segundos, nanos
+    private final int[][] free;
+
+    private Snapshot(Board board, List<Snake> living, int[] turboTicks, int[] slots, long tick, long seed) {
+      this.width = board.width();
+      this.height = board.height();
+      this.tick = tick;
+      this.seed = seed;
+      this.rng = board.rngState();
+      this.deaths = board.deaths();
+      this.collisions = board.collisions();
+
+      this.itemWords = board.layer(Board.ITEM_MOUSE).words();
+      this.items = new long[3 * itemWords];
+      int k = 0;
+      for (int item : new int[] { Board.ITEM_MOUSE, Board.ITEM_OBSTACLE, Board.ITEM_TURBO }) {
+        CellLayer layer = board.layer(item);
+        for (int w = 0; w < itemWords; w++)
+          items[k++] = layer.word(w);
+      }
+      this.teleports = board.teleportPairs();
+
+      int ints = SNAKE_BYTES / Integer.BYTES;
+      CellCollector collector = new CellCollector(width, living.size() * 8);
+      this.snakes = new int[living.size() * ints];
+      for (int s = 0; s < living.size(); s++) {
+        Snake snake = living.get(s);
+        int first = collector.count;
+        snake.forEachCell(collector);
+        int rec = s * ints;
+        snakes[rec] = snake.direction().ordinal();
+        snakes[rec + 1] = snake.maxLength();
+        snakes[rec + 2] = collector.count - first;
+        snakes[rec + 3] = turboTicks[s];
+        snakes[rec + 4] = first;
+        snakes[rec + 5] = slots[s];
+      }
+      this.cells = collector.cells;
+      this.cellCount = collector.count;
+
+      List<Board.DeadSnake> deadList = board.deadSnakes();
+      this.dead = new int[deadList.size() * 4];
+      this.deadTimes = new long[deadList.size() * 2];
+      for (int d = 0; d < deadList.size(); d++) {
+        Board.DeadSnake ds = deadList.get(d);
+        int head = ds.snake().headCell();
+        dead[4 * d] = ds.length();
+        dead[4 * d + 1] = ds.deathOrder();
+        dead[4 * d + 2] = ds.snakeIndex();
+        dead[4 * d + 3] = Snake.cellY(head) * width + Snake.cellX(head);
+        deadTimes[2 * d] = ds.deathTime().getEpochSecond();
+        deadTimes[2 * d + 1] = ds.deathTime().getNano();
+      }
+      this.free = board.freeIndex();
+    }
+
+    public long tick() {
+      return tick;
+    }
+
+    public int snakeCount() {
+      return snakes.length / (SNAKE_BYTES / Integer.BYTES);
+    }
+
+    // Escribe el archivo (ver Checkpoint.write): mapear, copiar, force y
+    // renombrar. No lee nada del juego, así que puede ir en otro hilo.
+    public void writeTo(Path file) throws IOException {
+      int snakeCount = snakeCount();
+      int deadCount = dead.length / 4;
+      long freeInts = free.length;
+      for (int[] f : free)
+        freeInts += f.length;
+
+      long itemsAt = HEADER_BYTES;
+      long teleportsAt = itemsAt + (long) items.length * Long.BYTES;
+      long snakesAt = align(teleportsAt + (long) teleports.length * Integer.BYTES);
+      long cellsAt = snakesAt + (long) snakeCount * SNAKE_BYTES;
+      long deadAt = align(cellsAt + (long) cellCount * Integer.BYTES);
+      long freeAt = deadAt + (long) deadCount * DEAD_BYTES;
+      long size = freeAt + freeInts * Integer.BYTES;
+      if (size > Integer.MAX_VALUE)
+        throw new IOException("Checkpoint too large: " + size + " bytes");
+
+      Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+      try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+          StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+        MappedByteBuffer out = ch.map(FileChannel.MapMode.READ_WRITE, 0, size);
+
+        out.putInt(H_MAGIC, MAGIC);
+        out.putInt(H_VERSION, VERSION);
+        out.putInt(H_WIDTH, width);
+        out.putInt(H_HEIGHT, height);
+        out.putLong(H_TICK, tick);
+        out.putLong(H_SEED, seed);
+        out.putLong(H_RNG, rng != null ? rng : 0);
+        out.putInt(H_FLAGS, rng != null ? FLAG_SEEDED : 0);
+        out.putInt(H_DEATHS, deaths);
+        out.putInt(H_COLLISIONS, collisions);
+        out.putInt(H_SNAKES, snakeCount);
+        out.putInt(H_DEAD, deadCount);
+        out.putInt(H_ITEM_WORDS, itemWords);
+        out.putInt(H_TELEPORTS, teleports.length / 2);
+        out.putInt(H_CELLS, cellCount);
+        out.putLong(H_ITEMS_AT, itemsAt);
+        out.putLong(H_TELEPORTS_AT, teleportsAt);
+        out.putLong(H_SNAKES_AT, snakesAt);
+        out.putLong(H_CELLS_AT, cellsAt);
+        out.putLong(H_DEAD_AT, deadAt);
+        out.putLong(H_FREE_AT, freeAt);
+        out.putInt(H_STRIPES, free.length);
+
+        out.position((int) itemsAt);
+        out.asLongBuffer().put(items);
+        out.position((int) teleportsAt);
+        out.asIntBuffer().put(teleports);
+
+        out.position((int) snakesAt);
+        out.asIntBuffer().put(snakes);
+        out.position((int) cellsAt);
+        out.asIntBuffer().put(cells, 0, cellCount);
+
+        out.position((int) deadAt);
+        for (int d = 0; d < deadCount; d++) {
+          for (int i = 0; i < 4; i++)
+            out.putInt(dead[4 * d + i]);
+          out.putLong(deadTimes[2 * d]);
+          out.putInt((int) deadTimes[2 * d + 1]);
+          out.putInt(0);
+        }
+
+        out.position((int) freeAt);
+        IntBuffer ints = out.asIntBuffer();
+        for (int[] f : free)
+          ints.put(f.length);
+        for (int[] f : free)
+          ints.put(f);
+        // Las páginas mapeadas y el tamaño del archivo, antes del renombre
+        out.force();
+        ch.force(true);
+      }
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+  }
+
+  private static long align(long offset) {
+    return (offset + 7) & ~7L;
+  }
+
+  // Mapea el archivo: los accesores leen directo de sus secciones
+  public static Checkpoint read(Path file) throws IOException {
+    try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (ch.size() > Integer.MAX_VALUE)
+        throw new IOException("Checkpoint too large: " + ch.size() + " bytes");
+      return new Checkpoint(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+    }
+  }
+
+  public int width() {
+    return buf.getInt(H_WIDTH);
+  }
+
+  public int height() {
+    return buf.getInt(H_HEIGHT);
+  }
+
+  // Tick del motor al guardar (0 si no había TickEngine)
+  public long tick() {
+    return buf.getLong(H_TICK);
+  }
+
+  public long seed() {
+    return buf.getLong(H_SEED);
+  }
+
+  public int snakeCount() {
+    return buf.getInt(H_SNAKES);
+  }
+
+  public int deadCount() {
+    return buf.getInt(H_DEAD);
+  }
+
+  // Ticks de turbo que le quedaban a la serpiente viva i
+  public int turboTicks(int i) {
+    return buf.getInt(snakeRecord(i) + 12);
+  }
+
+  public int snakeLength(int i) {
+    return buf.getInt(snakeRecord(i) + 8);
+  }
+
+  // Número de la serpiente viva i en el motor que la movía
+  public int slot(int i) {
+    return buf.getInt(snakeRecord(i) + 20);
+  }
+
+  private int snakeRecord(int i) {
+    if (i < 0 || i >= snakeCount())
+      throw new IndexOutOfBoundsException(i);
+    return (int) buf.getLong(H_SNAKES_AT) + i * SNAKE_BYTES;
+  }
+
+  // Reconstruye el tablero: items, teleports, serpientes vivas (en el mismo
+  // orden que al guardar, ver board.snakes()), muertes y contadores
+  public Board restoreBoard() {
+    int width = width();
+    int teleportsAt = (int) buf.getLong(H_TELEPORTS_AT);
+    int[] teleports = new int[buf.getInt(H_TELEPORTS) * 2];
+    for (int i = 0; i < teleports.length; i++)
+      teleports[i] = buf.getInt(teleportsAt + i * Integer.BYTES);
+    boolean seeded = (buf.getInt(H_FLAGS) & FLAG_SEEDED) != 0;
+    Board board = Board.empty(width, height(), teleports, seeded ? buf.getLong(H_RNG) : null);
+
+    int itemsAt = (int) buf.getLong(H_ITEMS_AT);
+    int words = buf.getInt(H_ITEM_WORDS);
+    int[] items = { Board.ITEM_MOUSE, Board.ITEM_OBSTACLE, Board.ITEM_TURBO };
+    for (int k = 0; k < items.length; k++) {
+      for (int w = 0; w < words; w++) {
+        long word = buf.getLong(itemsAt + (k * words + w) * Long.BYTES);
+        while (word != 0) {
+          board.replaySpawn(items[k], (w << 6) + Long.numberOfTrailingZeros(word));
+          word &= word - 1;
+        }
+      }
+    }
+
+    int cellsAt = (int) buf.getLong(H_CELLS_AT);
+    for (int s = 0; s < snakeCount(); s++) {
+      int rec = snakeRecord(s);
+      int length = buf.getInt(rec + 8);
+      int first = cellsAt + buf.getInt(rec + 16) * Integer.BYTES;
+      int head = buf.getInt(first);
+      Snake snake = Snake.of(head % width, head / width, DIRECTIONS[buf.getInt(rec)]);
+      board.addSnake(snake);
+      for (int i = 1; i < length; i++) {
+        int cell = buf.getInt(first + i * Integer.BYTES);
+        snake.appendTail(cell % width, cell / width);
+      }
+      snake.restoreMaxLength(buf.getInt(rec + 4));
+    }
+
+    int deadAt = (int) buf.getLong(H_DEAD_AT);
+    List<Board.DeadSnake> dead = new ArrayList<>(deadCount());
+    for (int d = 0; d < deadCount(); d++) {
+      int rec = deadAt + d * DEAD_BYTES;
+      int head = buf.getInt(rec + 12);
+      // La serpiente muerta solo se usa como identidad en estadísticas
+      Snake ghost = Snake.of(head % width, head / width, Direction.RIGHT);
+      dead.add(new Board.DeadSnake(ghost, buf.getInt(rec), buf.getInt(rec + 4),
+          Instant.ofEpochSecond(buf.getLong(rec + 16), buf.getInt(rec + 24)), buf.getInt(rec + 8)));
+    }
+    board.restoreDeaths(dead, buf.getInt(H_DEATHS), buf.getInt(H_COLLISIONS));
+
+    // Al final: los spawns y serpientes de arriba alteran el orden del índice
+    int freeAt = (int) buf.getLong(H_FREE_AT);
+    int[][] free = new int[buf.getInt(H_STRIPES)][];
+    int next = freeAt + free.length * Integer.BYTES;
+    for (int i = 0; i < free.length; i++) {
+      free[i] = new int[buf.getInt(freeAt + i * Integer.BYTES)];
+      for (int k = 0; k < free[i].length; k++, next += Integer.BYTES)
+        free[i][k] = buf.getInt(next);
+    }
+    board.restoreFreeIndex(free);
+    return board;
+  }
+
+  // Junta los cuerpos en un solo int[] (índices de celda)
+  private static final class CellCollector implements Snake.CellVisitor {
+    private final int width;
+    int[] cells;
+    int count;
+
+    CellCollector(int width, int capacity) {
+      this.width = width;
+      this.cells = new int[Math.max(16, capacity)];
+    }
+
+    @Override
+    public void visit(int i, int x, int y) {
+      if (count == cells.length)
+        cells = Arrays.copyOf(cells, cells.length * 2);
+      cells[count++] = y * width + x;
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package co.eci.snake.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Registro de muertes solo de agregado y sin locks al escribir: la muerte con
+// orden n va en la posición n - 1 (el orden ya lo reparte un contador atómico),
+// así que cada escritor tiene su propia celda y leer en orden no ordena nada.
+// Crece por bloques que nunca se mueven.
+final class DeathLog {
+  private static final int CHUNK_BITS = 10;
+  private static final int CHUNK = 1 << CHUNK_BITS;
+
+  // Envoltorio del bloque: un arreglo de AtomicReferenceArray genérico no se
+  // puede crear sin tipos crudos
+  private static final class Chunk {
+    final AtomicReferenceArray<Board.DeadSnake> deaths = new AtomicReferenceArray<>(CHUNK);
+  }
+
+  private volatile Chunk[] chunks = new Chunk[0];
+  private final Object growLock = new Object();
+
+  void put(Board.DeadSnake dead) {
+    int i = dead.deathOrder() - 1;
+    if (i < 0)
+      throw new IllegalArgumentException("deathOrder must be positive");
+    chunk(i >>> CHUNK_BITS).deaths.set(i & (CHUNK - 1), dead);
+  }
+
+  // Muertes 1..count en orden; una que todavía se está escribiendo se omite
+  List<Board.DeadSnake> list(int count) {
+    Chunk[] cs = chunks;
+    List<Board.DeadSnake> out = new ArrayList<>(count);
+    for (int i = 0; i < count && (i >>> CHUNK_BITS) < cs.length; i++) {
+      Board.DeadSnake d = cs[i >>> CHUNK_BITS].deaths.get(i & (CHUNK - 1));
+      if (d != null)
+        out.add(d);
+    }
+    return out;
+  }
+
+  Board.DeadSnake get(int order) {
+    int i = order - 1;
+    Chunk[] cs = chunks;
+    return i >= 0 && (i >>> CHUNK_BITS) < cs.length ? cs[i >>> CHUNK_BITS].deaths.get(i & (CHUNK - 1)) : null;
+  }
+
+  private Chunk chunk(int k) {
+    Chunk[] cs = chunks;
+    if (k < cs.length)
+      return cs[k];
+    synchronized (growLock) {
+      cs = chunks;
+      if (k >= cs.length) {
+        var bigger = Arrays.copyOf(cs, Math.max(k + 1, cs.length * 2));
+        for (int i = cs.length; i < bigger.length; i++)
+          bigger[i] = new Chunk();
+        chunks = bigger;
+        cs = bigger;
+      }
+      return cs[k];
+    }
+  }
+}
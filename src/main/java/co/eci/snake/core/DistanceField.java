@@ -0,0 +1,50 @@
+package co.eci.snake.core;
+
+// Distancia (en pasos) de cada celda al ratón más cercano, en una versión
+// inmutable publicada por MouseField. Las distancias van en int[] por bloques
+// de CHUNK celdas: una versión nueva copia solo los bloques que cambiaron y
+// comparte el resto con la anterior. Los obstáculos quedan en UNREACHABLE.
+public final class DistanceField {
+  public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+  static final int CHUNK_BITS = 10;
+  static final int CHUNK = 1 << CHUNK_BITS;
+
+  private final int width;
+  private final int height;
+  private final int[][] chunks; // celda y * width + x en chunks[i >> CHUNK_BITS][i & (CHUNK - 1)]
+  private final long version;
+
+  DistanceField(int width, int height, int[][] chunks, long version) {
+    this.width = width;
+    this.height = height;
+    this.chunks = chunks;
+    this.version = version;
+  }
+
+  public int width() {
+    return width;
+  }
+
+  public int height() {
+    return height;
+  }
+
+  // Sube con cada actualización publicada
+  public long version() {
+    return version;
+  }
+
+  // Pasos hasta el ratón más cercano, o UNREACHABLE
+  public int at(int x, int y) {
+    return at(y * width + x);
+  }
+
+  int at(int index) {
+    return chunks[index >>> CHUNK_BITS][index & (CHUNK - 1)];
+  }
+
+  static int chunkCount(int cells) {
+    return (cells + CHUNK - 1) >>> CHUNK_BITS;
+  }
+}
@@ -0,0 +1,65 @@
+package co.eci.snake.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Cola acotada sin locks de muchos productores y un consumidor (esquema de
+// Vyukov): cada productor reserva un slot con un getAndIncrement, escribe y lo
+// publica con el número de secuencia. Cada evento son dos long (datos y
+// tiempo) en arreglos primitivos: encolar no crea objetos.
+final class EventRing {
+  @FunctionalInterface
+  interface Consumer {
+    void accept(long event, long nanos);
+  }
+
+  private final int mask;
+  private final long[] events;
+  private final long[] times;
+  // sequence[i] == pos: libre para el productor de pos; == pos + 1: listo para leer
+  private final AtomicLongArray sequence;
+  private final AtomicLong tail = new AtomicLong();
+  private long head = 0; // solo el consumidor
+
+  EventRing(int capacity) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+      throw new IllegalArgumentException("capacity must be a power of two");
+    this.mask = capacity - 1;
+    this.events = new long[capacity];
+    this.times = new long[capacity];
+    this.sequence = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++)
+      sequence.set(i, i);
+  }
+
+  // Si la cola está llena el productor espera al consumidor (no se pierden eventos)
+  void offer(long event, long nanos) {
+    long pos = tail.getAndIncrement();
+    int i = (int) pos & mask;
+    int spins = 0;
+    while (sequence.get(i) != pos) {
+      if (++spins < 100)
+        Thread.onSpinWait();
+      else
+        Thread.yield();
+    }
+    events[i] = event;
+    times[i] = nanos;
+    sequence.set(i, pos + 1); // publica: escritura volatile después de los datos
+  }
+
+  // Entrega hasta max eventos en orden; retorna cuántos entregó
+  int drain(Consumer consumer, int max) {
+    int n = 0;
+    while (n < max) {
+      int i = (int) head & mask;
+      if (sequence.get(i) != head + 1)
+        break;
+      consumer.accept(events[i], times[i]);
+      sequence.set(i, head + mask + 1); // libera el slot para la siguiente vuelta
+      head++;
+      n++;
+    }
+    return n;
+  }
+}
@@ -0,0 +1,107 @@
+package co.eci.snake.core;
+
+import java.util.Arrays;
+
+// Como GreedyBrain pero sin meterse en callejones: para cada celda candidata
+// cuenta con un flood fill acotado cuántas celdas libres se alcanzan desde ahí.
+// Es segura si alcanza al menos largo + SLACK (tope MAX_AREA); entre las
+// seguras gana la más cercana al ratón y, si no hay ninguna, la de más espacio.
+final class FloodFillBrain implements SnakeBrain {
+  private static final int SLACK = 4;
+  private static final int MAX_AREA = 128;
+
+  // Visitadas: a lo sumo MAX_AREA por flood fill, así que alcanza una tabla
+  // de direccionamiento abierto de tamaño fijo (carga <= 1/2), no una marca
+  // por celda del tablero
+  private static final int SEEN_BITS = 8;
+  private static final int SEEN_SIZE = 1 << SEEN_BITS;
+
+  // Cola y visitadas por hilo (~3 KB, sin importar el tablero). Cada entrada
+  // es sello << 32 | celda y el sello cambia en cada flood fill, así que no
+  // hay que limpiarlas
+  private static final class Scratch {
+    final int[] queue = new int[MAX_AREA + 4];
+    final long[] seen = new long[SEEN_SIZE];
+    int stamp = 0;
+  }
+
+  private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+  @Override
+  public Direction decide(Snake snake, BrainView view, boolean turbo, long random) {
+    Direction current = snake.direction();
+    int head = view.head(snake);
+    int need = Math.min(snake.length() + SLACK, MAX_AREA);
+    Direction best = null;
+    boolean bestSafe = false;
+    int bestArea = 0;
+    int bestDist = 0;
+    for (Direction dir : Direction.values()) {
+      if (GreedyBrain.opposite(dir, current))
+        continue;
+      int next = view.neighbor(head, dir);
+      if (next < 0 || !view.free(next))
+        continue;
+      int area = area(view, next, need);
+      boolean safe = area >= need;
+      int d = view.distance(next);
+      boolean better;
+      if (best == null || safe != bestSafe)
+        better = best == null || safe;
+      else if (safe)
+        better = d < bestDist || (d == bestDist && GreedyBrain.prefer(dir, best, current, random));
+      else
+        better = area > bestArea || (area == bestArea && GreedyBrain.prefer(dir, best, current, random));
+      if (better) {
+        best = dir;
+        bestSafe = safe;
+        bestArea = area;
+        bestDist = d;
+      }
+    }
+    return best == null || best == current ? null : best;
+  }
+
+  // Celdas libres alcanzables desde start, contando hasta limit
+  private static int area(BrainView view, int start, int limit) {
+    Scratch s = SCRATCH.get();
+    int stamp = ++s.stamp;
+    if (stamp == 0) { // dio la vuelta: limpiar de verdad
+      Arrays.fill(s.seen, 0);
+      stamp = s.stamp = 1;
+    }
+    int[] queue = s.queue;
+    long[] seen = s.seen;
+    queue[0] = start;
+    mark(seen, stamp, start);
+    int tail = 1;
+    for (int head = 0; head < tail && tail < limit; head++) {
+      int cell = queue[head];
+      for (Direction dir : Direction.values()) {
+        int next = view.neighbor(cell, dir);
+        if (next >= 0 && view.free(next) && mark(seen, stamp, next)) {
+          queue[tail++] = next;
+          if (tail >= limit)
+            break;
+        }
+      }
+    }
+    return tail;
+  }
+
+  // Agrega la celda a las visitadas de este sello; false si ya estaba
+  private static boolean mark(long[] seen, int stamp, int cell) {
+    long entry = (long) stamp << 32 | cell;
+    int k = (cell * 0x9E3779B9) >>> (32 - SEEN_BITS);
+    while (true) {
+      long e = seen[k];
+      if (e == entry)
+        return false;
+      if ((int) (e >>> 32) != stamp) { // libre en este flood fill
+        seen[k] = entry;
+        return true;
+      }
+      k = (k + 1) & (SEEN_SIZE - 1);
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package co.eci.snake.core;
+
+import java.util.Arrays;
+
+// Foto inmutable (para el lector) del tablero en un instante: items y cuerpos
+// como celdas empaquetadas (x << 16 | y) en arreglos primitivos reutilizables.
+// Board la arma y la publica; el renderer la lee sin locks.
+public final class Frame {
+  private final int width;
+  private final int height;
+
+  private long sequence;
+
+  private int[] obstacles = new int[16];
+  private int obstacleCount;
+  private int[] mice = new int[16];
+  private int miceCount;
+  private int[] turbo = new int[16];
+  private int turboCount;
+  private int[] teleports = new int[8];
+  private int teleportCount;
+
+  // Cuerpos concatenados: la serpiente s ocupa [snakeStart[s], snakeStart[s + 1])
+  private int[] snakeCells = new int[64];
+  private int[] snakeStart = new int[9];
+  private int snakeCount;
+
+  // Visitor reutilizable para copiar cuerpos sin crear lambdas por serpiente
+  private final Snake.CellVisitor appender = (i, x, y) -> appendSnakeCell(Snake.pack(x, y));
+  private int cellCount;
+
+  Frame(int width, int height) {
+    this.width = width;
+    this.height = height;
+  }
+
+  public static int x(int cell) {
+    return Snake.cellX(cell);
+  }
+
+  public static int y(int cell) {
+    return Snake.cellY(cell);
+  }
+
+  public int width() {
+    return width;
+  }
+
+  public int height() {
+    return height;
+  }
+
+  // Número de publicación: crece en cada frame nuevo
+  public long sequence() {
+    return sequence;
+  }
+
+  public int obstacleCount() {
+    return obstacleCount;
+  }
+
+  public int obstacle(int i) {
+    return obstacles[i];
+  }
+
+  public int mouseCount() {
+    return miceCount;
+  }
+
+  public int mouse(int i) {
+    return mice[i];
+  }
+
+  public int turboCount() {
+    return turboCount;
+  }
+
+  public int turbo(int i) {
+    return turbo[i];
+  }
+
+  // Celdas de entrada de teleport (cada par aparece dos veces, una por lado)
+  public int teleportCount() {
+    return teleportCount;
+  }
+
+  public int teleport(int i) {
+    return teleports[i];
+  }
+
+  public int snakeCount() {
+    return snakeCount;
+  }
+
+  public int snakeLength(int s) {
+    return snakeStart[s + 1] - snakeStart[s];
+  }
+
+  // Celda i (0 = cabeza) de la serpiente s
+  public int snakeCell(int s, int i) {
+    return snakeCells[snakeStart[s] + i];
+  }
+
+  // --- Escritura: solo Board, sobre un buffer que ningún lector tiene ---
+
+  void begin(long sequence) {
+    this.sequence = sequence;
+    obstacleCount = 0;
+    miceCount = 0;
+    turboCount = 0;
+    teleportCount = 0;
+    snakeCount = 0;
+    cellCount = 0;
+    snakeStart[0] = 0;
+  }
+
+  void addObstacle(int cell) {
+    obstacles = ensure(obstacles, obstacleCount);
+    obstacles[obstacleCount++] = cell;
+  }
+
+  void addMouse(int cell) {
+    mice = ensure(mice, miceCount);
+    mice[miceCount++] = cell;
+  }
+
+  void addTurbo(int cell) {
+    turbo = ensure(turbo, turboCount);
+    turbo[turboCount++] = cell;
+  }
+
+  void addTeleport(int cell) {
+    teleports = ensure(teleports, teleportCount);
+    teleports[teleportCount++] = cell;
+  }
+
+  void addSnake(Snake snake) {
+    snake.forEachCell(appender);
+    snakeStart = ensure(snakeStart, snakeCount + 1);
+    snakeStart[++snakeCount] = cellCount;
+  }
+
+  private void appendSnakeCell(int cell) {
+    snakeCells = ensure(snakeCells, cellCount);
+    snakeCells[cellCount++] = cell;
+  }
+
+  private static int[] ensure(int[] a, int index) {
+    return index < a.length ? a : Arrays.copyOf(a, a.length * 2);
+  }
+}
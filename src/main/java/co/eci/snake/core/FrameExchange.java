@@ -0,0 +1,37 @@
+package co.eci.snake.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Triple buffer entre un escritor (quien publica frames) y un lector (el
+// renderer). El escritor llena "back", el lector usa "front" y el del medio
+// es el último publicado. Se intercambian con un getAndSet: nadie se bloquea y
+// ningún buffer se reescribe mientras el otro lado lo usa.
+final class FrameExchange {
+  private static final int FRESH = 4; // el del medio aún no lo tomó el lector
+
+  private final Frame[] buffers;
+  // Índice del buffer del medio (bits 0-1) + bandera FRESH
+  private final AtomicInteger middle = new AtomicInteger(1);
+
+  private int back = 0;  // solo el escritor
+  private int front = 2; // solo el lector
+
+  FrameExchange(int width, int height) {
+    buffers = new Frame[] { new Frame(width, height), new Frame(width, height), new Frame(width, height) };
+  }
+
+  Frame back() {
+    return buffers[back];
+  }
+
+  void publish() {
+    back = middle.getAndSet(back | FRESH) & 3;
+  }
+
+  // El frame devuelto sigue siendo válido hasta la próxima llamada del lector
+  Frame latest() {
+    if ((middle.get() & FRESH) != 0)
+      front = middle.getAndSet(front) & 3;
+    return buffers[front];
+  }
+}
@@ -1,13 +1,26 @@
 package co.eci.snake.core;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
 //Requerimos un mecanismo de espera por lo que se integra una clase
 //public enum GameState { STOPPED, RUNNING, PAUSED }
 
 public final class GameState {
     //estado del jeugo
     private volatile boolean paused = false;
-    //monitor de espera
-    private final Object pauseLock = new Object();
+    //lock de espera: ReentrantLock/Condition en vez de synchronized/wait para
+    //que un hilo virtual en pausa libere su carrier (no lo "pinnea")
+    private final ReentrantLock pauseLock = new ReentrantLock();
+    private final Condition resumed = pauseLock.newCondition();
+
+    //Barrera de quietud: hilos registrados (uno por serpiente viva o motor) y
+    //cuántos están detenidos en awaitIfPaused(). Con pauseLock.
+    private int participants = 0;
+    private int parked = 0;
+    //Se completa cuando parked == participants en la pausa actual
+    private CompletableFuture<Void> quiescent = CompletableFuture.completedFuture(null);
 
 
     //Metodo para la pausa
@@ -15,27 +28,101 @@ public final class GameState {
         return paused;
     }
 
+    //Cada hilo que llama awaitIfPaused() se registra antes de arrancar y se
+    //da de baja al terminar (p. ej. cuando muere su serpiente)
+    public void register() {
+        pauseLock.lock();
+        try {
+            participants++;
+        } finally {
+            pauseLock.unlock();
+        }
+    }
 
-    //En pausa continuen los hilos suspendidos
-    public void pause() {
-        synchronized (pauseLock) {
-            paused = true;
+    public void deregister() {
+        CompletableFuture<Void> done;
+        pauseLock.lock();
+        try {
+            if (participants == 0)
+                throw new IllegalStateException("No registered participants");
+            participants--;
+            done = quiescentIfAllParked();
+        } finally {
+            pauseLock.unlock();
         }
+        complete(done);
+    }
+
+    //En pausa continuen los hilos suspendidos. El future se completa cuando
+    //todos los participantes están detenidos (snapshot consistente); si se
+    //reanuda antes, se cancela. Nunca bloquea al que llama.
+    public CompletableFuture<Void> pause() {
+        CompletableFuture<Void> future;
+        CompletableFuture<Void> done;
+        pauseLock.lock();
+        try {
+            if (!paused) {
+                paused = true;
+                quiescent = new CompletableFuture<>();
+            }
+            future = quiescent;
+            done = quiescentIfAllParked();
+        } finally {
+            pauseLock.unlock();
+        }
+        complete(done);
+        return future;
     }
 
     //Reanudar la ejecucion de los hilos
     public void resume() {
-        synchronized (pauseLock) {
+        CompletableFuture<Void> pending;
+        pauseLock.lock();
+        try {
             paused = false;
-            pauseLock.notifyAll(); //Notificamos a los hilos
+            pending = quiescent;
+            resumed.signalAll(); //Notificamos a los hilos
+        } finally {
+            pauseLock.unlock();
         }
+        pending.cancel(false); //sin efecto si ya se completó
     }
 
+    //Se llama en cada iteración de cada hilo: sin pausa es solo una lectura
+    //volatile, sin tocar el lock compartido
     public void awaitIfPaused() throws InterruptedException {
-        synchronized (pauseLock) {
+        if (!paused)
+            return;
+        CompletableFuture<Void> done;
+        pauseLock.lock();
+        try {
+            if (!paused)
+                return;
+            parked++;
+            done = quiescentIfAllParked();
+        } finally {
+            pauseLock.unlock();
+        }
+        //El último en detenerse completa la barrera fuera del lock: los
+        //callbacks del future no corren con el lock tomado
+        complete(done);
+        pauseLock.lock();
+        try {
             while (paused) { //Notifica constantemente a los hilos, impidiendo que se ejecuten
-                pauseLock.wait();
+                resumed.await();
             }
+        } finally {
+            parked--;
+            pauseLock.unlock();
         }
     }
-}
\ No newline at end of file
+
+    private CompletableFuture<Void> quiescentIfAllParked() {
+        return paused && parked >= participants && !quiescent.isDone() ? quiescent : null;
+    }
+
+    private static void complete(CompletableFuture<Void> future) {
+        if (future != null)
+            future.complete(null);
+    }
+}
@@ -0,0 +1,40 @@
+package co.eci.snake.core;
+
+// Va hacia el ratón más cercano: de las tres direcciones posibles (no puede
+// volver sobre sí misma) toma la celda libre con menor distancia del campo del
+// tablero. Son tres lecturas de un int[] por serpiente, sin BFS propio. En
+// empate sigue derecho; si no, decide un bit de random.
+final class GreedyBrain implements SnakeBrain {
+  @Override
+  public Direction decide(Snake snake, BrainView view, boolean turbo, long random) {
+    Direction current = snake.direction();
+    int head = view.head(snake);
+    Direction best = null;
+    int bestDist = 0;
+    for (Direction dir : Direction.values()) {
+      if (opposite(dir, current))
+        continue;
+      int next = view.neighbor(head, dir);
+      if (next < 0 || !view.free(next))
+        continue;
+      int d = view.distance(next);
+      if (best == null || d < bestDist || (d == bestDist && prefer(dir, best, current, random))) {
+        best = dir;
+        bestDist = d;
+      }
+    }
+    // Sin celda libre: da igual hacia dónde, sigue derecho
+    return best == null || best == current ? null : best;
+  }
+
+  // Desempate entre dos direcciones igual de buenas
+  static boolean prefer(Direction dir, Direction best, Direction current, long random) {
+    if (best == current)
+      return false;
+    return dir == current || ((random >>> dir.ordinal()) & 1) != 0;
+  }
+
+  static boolean opposite(Direction a, Direction b) {
+    return a.dx == -b.dx && a.dy == -b.dy;
+  }
+}
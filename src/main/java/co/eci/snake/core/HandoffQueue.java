@@ -0,0 +1,56 @@
+package co.eci.snake.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Cola acotada sin locks de muchos productores y un consumidor, como EventRing
+// pero con objetos y sin esperar: si está llena offer() devuelve false y el
+// productor decide (un shard deja a la serpiente en el borde hasta el tick
+// siguiente). El productor reserva el slot con CAS solo si ya está libre.
+final class HandoffQueue<T> {
+  private final int mask;
+  private final AtomicReferenceArray<T> items;
+  // sequence[i] == pos: libre para el productor de pos; == pos + 1: listo para leer
+  private final AtomicLongArray sequence;
+  private final AtomicLong tail = new AtomicLong();
+  private long head = 0; // solo el consumidor
+
+  HandoffQueue(int capacity) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+      throw new IllegalArgumentException("capacity must be a power of two");
+    this.mask = capacity - 1;
+    this.items = new AtomicReferenceArray<>(capacity);
+    this.sequence = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++)
+      sequence.set(i, i);
+  }
+
+  boolean offer(T item) {
+    while (true) {
+      long pos = tail.get();
+      int i = (int) pos & mask;
+      long seq = sequence.get(i);
+      if (seq < pos)
+        return false; // llena: el consumidor no liberó este slot todavía
+      if (seq == pos && tail.compareAndSet(pos, pos + 1)) {
+        items.lazySet(i, item);
+        sequence.set(i, pos + 1); // publica después del dato
+        return true;
+      }
+      // otro productor tomó pos: reintentar con el tail nuevo
+    }
+  }
+
+  // Solo el consumidor: el siguiente elemento o null si no hay
+  T poll() {
+    int i = (int) head & mask;
+    if (sequence.get(i) != head + 1)
+      return null;
+    T item = items.get(i);
+    items.lazySet(i, null);
+    sequence.set(i, head + mask + 1); // libera el slot para la siguiente vuelta
+    head++;
+    return item;
+  }
+}
@@ -0,0 +1,138 @@
+package co.eci.snake.core;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import co.eci.snake.metrics.Metrics;
+
+// Franja horizontal del tablero con su propio lock. Los items de sus filas
+// (bits en las CellLayer de Board) solo se modifican con este lock tomado.
+// Serpientes en franjas distintas no compiten por el mismo monitor.
+final class ItemStripe {
+  final int fromRow;
+  final int toRow; // exclusivo
+
+  // Índice de celdas libres de items y teleports: arreglo denso con borrado por
+  // intercambio + mapa inverso (celda local -> posición en free, -1 = ocupada).
+  // Elegir una celda libre al azar es O(1). Se modifica con el lock tomado;
+  // freeCount es volatile para que Board reparta el sorteo entre franjas sin lock.
+  private final int width;
+  private final int[] free;
+  private final int[] slot;
+  private volatile int freeCount;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  // Contadores de contención (LongAdder: baratos con muchos hilos). Los
+  // tiempos de espera y retención solo con Metrics.ENABLED: sin métricas un
+  // paso no lee el reloj
+  private final LongAdder acquisitions = new LongAdder();
+  private final LongAdder contended = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+  private final LongAdder holdNanos = new LongAdder();
+
+  // Solo lo escribe/lee el hilo que tiene el lock
+  private long lockedAt;
+
+  ItemStripe(int fromRow, int toRow, int width) {
+    this.fromRow = fromRow;
+    this.toRow = toRow;
+    this.width = width;
+    int cells = (toRow - fromRow) * width;
+    this.free = new int[cells];
+    this.slot = new int[cells];
+    for (int i = 0; i < cells; i++) {
+      free[i] = i;
+      slot[i] = i;
+    }
+    this.freeCount = cells;
+  }
+
+  void lock() {
+    if (!lock.tryLock()) {
+      contended.increment();
+      if (!Metrics.ENABLED) {
+        lock.lock();
+      } else {
+        long start = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - start;
+        waitNanos.add(waited);
+        Metrics.STRIPE_WAIT.record(waited);
+      }
+    }
+    acquisitions.increment();
+    if (Metrics.ENABLED)
+      lockedAt = System.nanoTime();
+  }
+
+  void unlock() {
+    if (Metrics.ENABLED) {
+      long held = System.nanoTime() - lockedAt;
+      holdNanos.add(held);
+      Metrics.STRIPE_HOLD.record(held);
+    }
+    lock.unlock();
+  }
+
+  int freeCount() {
+    return freeCount;
+  }
+
+  // i-ésima celda libre como celda empaquetada (0 <= i < freeCount)
+  int freeCell(int i) {
+    int local = free[i];
+    return Snake.pack(local % width, fromRow + local / width);
+  }
+
+  boolean isFree(int x, int y) {
+    return slot[local(x, y)] >= 0;
+  }
+
+  void occupy(int x, int y) {
+    int local = local(x, y);
+    int i = slot[local];
+    if (i < 0)
+      return;
+    int last = free[freeCount - 1];
+    free[i] = last;
+    slot[last] = i;
+    slot[local] = -1;
+    freeCount--;
+  }
+
+  void release(int x, int y) {
+    int local = local(x, y);
+    if (slot[local] >= 0)
+      return;
+    int n = freeCount;
+    free[n] = local;
+    slot[local] = n;
+    freeCount = n + 1;
+  }
+
+  // Copia del índice de libres en su orden actual (el orden decide qué celda
+  // sale en cada sorteo: un checkpoint lo guarda para repetir la partida)
+  int[] freeSnapshot() {
+    return Arrays.copyOf(free, freeCount);
+  }
+
+  void restoreFree(int[] cells) {
+    Arrays.fill(slot, -1);
+    for (int i = 0; i < cells.length; i++) {
+      free[i] = cells[i];
+      slot[cells[i]] = i;
+    }
+    freeCount = cells.length;
+  }
+
+  private int local(int x, int y) {
+    return (y - fromRow) * width + x;
+  }
+
+  Board.StripeStats stats(int index) {
+    return new Board.StripeStats(index, fromRow, toRow, acquisitions.sum(), contended.sum(),
+        waitNanos.sum(), holdNanos.sum());
+  }
+}
@@ -0,0 +1,59 @@
+package co.eci.snake.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Serpientes vivas ordenadas por largo (mayor primero; a igual largo, la más
+// antigua: menor número de alta en SnakeTable). Cada serpiente actualiza su entrada con su propio write lock y solo
+// cuando cambia de largo, así que no hay dos escritores para la misma entrada.
+// La más larga es first() en O(1); insertar o quitar es O(log n).
+final class Leaderboard {
+  record Entry(Snake snake, int seq, int length) {}
+
+  private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::length).reversed()
+      .thenComparingInt(Entry::seq);
+
+  private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(ORDER);
+
+  Entry add(Snake snake, int seq, int length) {
+    Entry e = new Entry(snake, seq, length);
+    ranking.add(e);
+    return e;
+  }
+
+  // Reemplaza la entrada vieja; devuelve la nueva
+  Entry update(Entry old, int length) {
+    // Primero la nueva: un lector concurrente nunca ve la serpiente ausente
+    Entry e = add(old.snake(), old.seq(), length);
+    ranking.remove(old);
+    return e;
+  }
+
+  void remove(Entry e) {
+    ranking.remove(e);
+  }
+
+  Snake longest() {
+    Iterator<Entry> it = ranking.iterator();
+    return it.hasNext() ? it.next().snake() : null;
+  }
+
+  // Las n primeras, O(log size + n): el conjunto de vistas es por identidad
+  List<Board.Leader> top(int n) {
+    List<Board.Leader> out = new ArrayList<>(Math.min(n, 16));
+    Set<Snake> seen = Collections.newSetFromMap(new IdentityHashMap<>(Math.min(n, 16)));
+    for (Iterator<Entry> it = ranking.iterator(); it.hasNext() && out.size() < n;) {
+      Entry e = it.next();
+      if (!seen.add(e.snake()))
+        continue; // vista a mitad de un update(): queda la primera entrada
+      out.add(new Board.Leader(e.snake(), e.length()));
+    }
+    return out;
+  }
+}
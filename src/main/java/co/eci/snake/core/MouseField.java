@@ -0,0 +1,307 @@
+package co.eci.snake.core;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Mantiene el DistanceField del Board sin rehacerlo: las capas de ratones y
+// obstáculos avisan cada celda que cambia (CellLayer.Listener) a una cola sin
+// locks de int (CellQueue: avisar no crea objetos), y el primer lector que encuentra cambios pendientes los aplica:
+// - ratón nuevo (o celda que deja de ser obstáculo): BFS desde esa celda que
+//   solo baja distancias, y se detiene donde no mejora nada;
+// - ratón comido (u obstáculo nuevo): se invalida la región que podía depender
+//   de esa celda (distancias que suben de a uno desde ahí) y se rellena desde
+//   su borde, en orden de distancia.
+// Se publica una versión inmutable nueva (copiando solo los bloques tocados),
+// así que los lectores nunca ven una versión a medias ni esperan: si otro hilo
+// está aplicando, se quedan con la última publicada.
+final class MouseField implements CellLayer.Listener {
+  private static final int PENDING_CAPACITY = 4096;
+  // Si una región invalidada pasa de 1/REBUILD_SHARE del tablero (pocos
+  // ratones: comer uno cambia una porción grande) sale más barato recalcular
+  private static final int REBUILD_SHARE = 4;
+
+  private final int width;
+  private final int height;
+  private final boolean wrap;
+  private final CellLayer mice;
+  private final CellLayer obstacles;
+
+  private final CellQueue pending = new CellQueue(PENDING_CAPACITY);
+  // La cola se llenó: se perdieron cambios y hay que recalcular todo
+  private volatile boolean overflow = false;
+  // Hay cambios en la cola (se baja antes de vaciarla)
+  private volatile boolean dirty = false;
+  private volatile DistanceField published;
+
+  // Estado del escritor (con applyLock)
+  private final ReentrantLock applyLock = new ReentrantLock();
+  private int[][] work;
+  private boolean[] owned; // bloques ya copiados en esta actualización
+  private int[] queue;
+  private int[] mark; // sellos de la región invalidada
+  private int stamp = 0;
+  private long[] seeds = new long[64];
+  private boolean rebuildNeeded;
+  private final int[] nbr = new int[4]; // vecinos de la celda actual (-1 = fuera)
+
+  MouseField(int width, int height, boolean wrap, CellLayer mice, CellLayer obstacles) {
+    this.width = width;
+    this.height = height;
+    this.wrap = wrap;
+    this.mice = mice;
+    this.obstacles = obstacles;
+    int cells = width * height;
+    this.queue = new int[cells];
+    this.mark = new int[cells];
+    this.owned = new boolean[DistanceField.chunkCount(cells)];
+    // Primero escuchar y después calcular: un cambio entre medio se aplica de
+    // nuevo, y aplicar es idempotente (compara con el estado real de las capas)
+    mice.listen(this);
+    obstacles.listen(this);
+    applyLock.lock();
+    try {
+      rebuild(0);
+    } finally {
+      applyLock.unlock();
+    }
+  }
+
+  @Override
+  public void changed(int index) {
+    if (!pending.offer(index))
+      overflow = true;
+    dirty = true;
+  }
+
+  // Sin esperar nunca: aplica los cambios pendientes si nadie más lo está
+  // haciendo; si no, la última versión publicada (para la UI)
+  DistanceField current() {
+    if (!dirty || !applyLock.tryLock())
+      return published;
+    try {
+      return update();
+    } finally {
+      applyLock.unlock();
+    }
+  }
+
+  // Con todos los cambios avisados hasta ahora (para los SnakeBrain: en el
+  // TickEngine la versión no depende de qué hilo llegó primero)
+  DistanceField latest() {
+    if (!dirty)
+      return published;
+    applyLock.lock();
+    try {
+      return update();
+    } finally {
+      applyLock.unlock();
+    }
+  }
+
+  // Con applyLock
+  private DistanceField update() {
+    dirty = false;
+    long version = published.version() + 1;
+    if (overflow) {
+      overflow = false;
+      while (pending.poll() != CellQueue.EMPTY) {
+        // el recálculo completo los cubre
+      }
+      rebuild(version);
+      return published;
+    }
+    boolean changed = false;
+    int cell;
+    while ((cell = pending.poll()) != CellQueue.EMPTY) {
+      changed |= apply(cell);
+      if (rebuildNeeded) {
+        rebuildNeeded = false;
+        while (pending.poll() != CellQueue.EMPTY) {
+          // el recálculo completo los cubre
+        }
+        rebuild(version);
+        return published;
+      }
+    }
+    if (changed)
+      publish(version);
+    return published;
+  }
+
+  // Con applyLock
+  private void rebuild(long version) {
+    int cells = width * height;
+    work = new int[owned.length][DistanceField.CHUNK];
+    Arrays.fill(owned, true);
+    for (int[] chunk : work)
+      Arrays.fill(chunk, DistanceField.UNREACHABLE);
+    int tail = 0;
+    for (int i = mice.nextSetBit(0); i >= 0 && i < cells; i = mice.nextSetBit(i + 1)) {
+      set(i, 0);
+      queue[tail++] = i;
+    }
+    relax(tail);
+    publish(version);
+  }
+
+  private void publish(long version) {
+    published = new DistanceField(width, height, work.clone(), version);
+    Arrays.fill(owned, false); // lo publicado ya no se toca: copiar al escribir
+  }
+
+  // Lleva la celda al estado real de las capas; true si algo cambió
+  private boolean apply(int cell) {
+    int x = cell % width, y = cell / width;
+    int d = get(cell);
+    if (obstacles.contains(x, y))
+      return d != DistanceField.UNREACHABLE && invalidate(cell);
+    if (mice.contains(x, y)) {
+      if (d == 0)
+        return false;
+      set(cell, 0);
+      queue[0] = cell;
+      relax(1);
+      return true;
+    }
+    if (d == 0)
+      return invalidate(cell); // ratón comido
+    // Celda libre: pudo dejar de ser obstáculo
+    int best = bestNeighbor(cell, -1);
+    if (best == DistanceField.UNREACHABLE || best + 1 >= d)
+      return false;
+    set(cell, best + 1);
+    queue[0] = cell;
+    relax(1);
+    return true;
+  }
+
+  // BFS que solo baja distancias, desde queue[0..tail)
+  private void relax(int tail) {
+    for (int head = 0; head < tail; head++) {
+      int cell = queue[head];
+      int nd = get(cell) + 1;
+      neighbors(cell);
+      for (int next : nbr) {
+        if (next >= 0 && get(next) > nd && !obstacles.contains(next)) {
+          set(next, nd);
+          queue[tail++] = next;
+        }
+      }
+    }
+  }
+
+  // La celda dejó de ser origen (o de ser transitable): región que podía
+  // depender de ella, rellenada desde su borde
+  private boolean invalidate(int origin) {
+    int s = nextStamp();
+    // 1) Región: desde origin, vecinos con distancia exactamente +1 (con los
+    //    valores viejos). Lo de afuera conserva un camino que no pasa por ella.
+    mark[origin] = s;
+    queue[0] = origin;
+    int size = 1;
+    int limit = width * height / REBUILD_SHARE;
+    for (int head = 0; head < size; head++) {
+      if (size > limit) {
+        rebuildNeeded = true; // nada escrito todavía
+        return true;
+      }
+      int cell = queue[head];
+      int d = get(cell);
+      if (d == DistanceField.UNREACHABLE)
+        continue;
+      neighbors(cell);
+      for (int next : nbr) {
+        if (next >= 0 && mark[next] != s && get(next) == d + 1) {
+          mark[next] = s;
+          queue[size++] = next;
+        }
+      }
+    }
+
+    // 2) Se borra la región y se anotan las semillas: la mejor distancia que
+    //    cada celda recibe de afuera (los vecinos de afuera no cambian),
+    //    ordenadas de menor a mayor
+    int n = 0;
+    for (int i = 0; i < size; i++) {
+      int cell = queue[i];
+      set(cell, DistanceField.UNREACHABLE);
+      if (obstacles.contains(cell))
+        continue; // el origen si se volvió obstáculo
+      int best = bestNeighbor(cell, s);
+      if (best != DistanceField.UNREACHABLE) {
+        if (n == seeds.length)
+          seeds = Arrays.copyOf(seeds, n * 2);
+        seeds[n++] = ((long) (best + 1) << 32) | cell;
+      }
+    }
+    Arrays.sort(seeds, 0, n);
+
+    // 3) Relleno en orden de distancia: se mezclan las semillas (ordenadas) con
+    //    la cola FIFO del BFS, que también sale en orden. La cola reutiliza
+    //    queue: la región ya no hace falta.
+    int head = 0, tail = 0, si = 0;
+    while (si < n || head < tail) {
+      int cell, d;
+      if (head == tail || (si < n && (int) (seeds[si] >>> 32) <= get(queue[head]))) {
+        cell = (int) seeds[si];
+        d = (int) (seeds[si++] >>> 32);
+        if (d >= get(cell))
+          continue; // ya llegó algo igual o mejor
+        set(cell, d);
+      } else {
+        cell = queue[head++];
+        d = get(cell);
+      }
+      neighbors(cell);
+      for (int next : nbr) {
+        if (next >= 0 && mark[next] == s && get(next) > d + 1 && !obstacles.contains(next)) {
+          set(next, d + 1);
+          queue[tail++] = next;
+        }
+      }
+    }
+    return true;
+  }
+
+  // Menor distancia de un vecino fuera de la región marcada con s (-1: sin región)
+  private int bestNeighbor(int cell, int s) {
+    int best = DistanceField.UNREACHABLE;
+    neighbors(cell);
+    for (int next : nbr) {
+      if (next >= 0 && (s < 0 || mark[next] != s))
+        best = Math.min(best, get(next));
+    }
+    return best;
+  }
+
+  private int nextStamp() {
+    if (++stamp == Integer.MAX_VALUE) {
+      Arrays.fill(mark, 0);
+      stamp = 1;
+    }
+    return stamp;
+  }
+
+  // Llena nbr con los cuatro vecinos (-1 si salen de un tablero sin wrap)
+  private void neighbors(int cell) {
+    int x = cell % width, row = cell - x;
+    int last = width * (height - 1);
+    nbr[0] = row > 0 ? cell - width : wrap ? cell + last : -1;
+    nbr[1] = row < last ? cell + width : wrap ? cell - last : -1;
+    nbr[2] = x > 0 ? cell - 1 : wrap ? cell + width - 1 : -1;
+    nbr[3] = x < width - 1 ? cell + 1 : wrap ? cell - width + 1 : -1;
+  }
+
+  private int get(int cell) {
+    return work[cell >>> DistanceField.CHUNK_BITS][cell & (DistanceField.CHUNK - 1)];
+  }
+
+  private void set(int cell, int d) {
+    int k = cell >>> DistanceField.CHUNK_BITS;
+    if (!owned[k]) {
+      work[k] = work[k].clone();
+      owned[k] = true;
+    }
+    work[k][cell & (DistanceField.CHUNK - 1)] = d;
+  }
+}
@@ -0,0 +1,67 @@
+package co.eci.snake.core;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Grilla de ocupación compartida: una celda por posición del tablero con el id
+// de la serpiente que la ocupa (EMPTY si está libre). Permite verificar
+// colisiones en O(1) sin copiar cuerpos.
+// Protocolo de movimiento: la serpiente reclama su celda destino con CAS antes
+// de moverse y libera con CAS la cola que deja. Sin check-then-act ni locks.
+final class OccupancyGrid {
+  static final int EMPTY = 0;
+  // Celda reservada para una serpiente que todavía no tiene id (traspaso de
+  // World); para los demás es una celda ocupada
+  static final int RESERVED = -1;
+
+  private final int width;
+  private final int height;
+
+  // AtomicIntegerArray da visibilidad entre hilos sin lock
+  private final AtomicIntegerArray owners;
+
+  OccupancyGrid(int width, int height) {
+    this.width = width;
+    this.height = height;
+    this.owners = new AtomicIntegerArray(width * height);
+  }
+
+  int index(int x, int y) {
+    return y * width + x;
+  }
+
+  int ownerAt(int x, int y) {
+    return owners.get(index(x, y));
+  }
+
+  // Reclama la celda con CAS. Retorna EMPTY si el CAS ganó; si no, retorna el
+  // dueño actual (puede ser la misma serpiente), que es la colisión.
+  int claim(int x, int y, int snakeId) {
+    int idx = index(x, y);
+    while (true) {
+      if (owners.compareAndSet(idx, EMPTY, snakeId))
+        return EMPTY;
+      int owner = owners.get(idx);
+      if (owner != EMPTY)
+        return owner;
+      // La celda se liberó entre el CAS y la lectura: reintentar
+    }
+  }
+
+  // Libera con CAS: solo si la celda sigue siendo de esta serpiente
+  void release(int x, int y, int snakeId) {
+    owners.compareAndSet(index(x, y), snakeId, EMPTY);
+  }
+
+  // Pasa la celda de un dueño a otro con CAS (reserva -> serpiente)
+  boolean handOver(int x, int y, int from, int to) {
+    return owners.compareAndSet(index(x, y), from, to);
+  }
+
+  int width() {
+    return width;
+  }
+
+  int height() {
+    return height;
+  }
+}
@@ -2,6 +2,8 @@ package co.eci.snake.core;
 
 public record Position(int x, int y) {
   public Position wrap(int width, int height) {
+    if (x >= 0 && x < width && y >= 0 && y < height)
+      return this; // ya está dentro: no crear otra instancia
     int nx = ((x % width) + width) % width;
     int ny = ((y % height) + height) % height;
     return new Position(nx, ny);
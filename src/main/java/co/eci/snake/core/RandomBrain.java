@@ -0,0 +1,21 @@
+package co.eci.snake.core;
+
+// Giro al azar con probabilidad 10% (5% con turbo); no mira el tablero
+final class RandomBrain implements SnakeBrain {
+  static final RandomBrain INSTANCE = new RandomBrain();
+
+  private RandomBrain() {
+  }
+
+  @Override
+  public Direction decide(Snake snake, BrainView view, boolean turbo, long random) {
+    double p = turbo ? 0.05 : 0.10;
+    return (random >>> 11) * 0x1.0p-53 < p ? pick(random) : null;
+  }
+
+  // Dirección con los bits bajos (independientes de los altos usados arriba)
+  static Direction pick(long random) {
+    var dirs = Direction.values();
+    return dirs[(int) ((random & 0xFF) % dirs.length)];
+  }
+}
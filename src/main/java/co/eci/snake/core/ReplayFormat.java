@@ -0,0 +1,88 @@
+package co.eci.snake.core;
+
+import java.nio.ByteBuffer;
+
+// Formato del log de replay (.snkr):
+//   cabecera: "SNKR", versión, ancho, alto, n, n entradas de teleport (desde, hacia)
+//   eventos:  byte (tipo | arg << 4), delta de tiempo en µs, campos del tipo
+// Todos los enteros van como varint (LEB128); los deltas con zigzag. Las celdas
+// de un paso se guardan como diferencia con la cabeza anterior de la serpiente,
+// así un movimiento normal ocupa uno o dos bytes.
+final class ReplayFormat {
+  static final int MAGIC = 0x534E4B52; // "SNKR"
+  static final int VERSION = 1;
+
+  // Tipos de evento (4 bits)
+  static final int SPAWN = 1;      // arg = item; celda
+  static final int ADD = 2;        // arg = dirección; id, celda de la cabeza
+  static final int SEGMENT = 3;    // id, delta con la celda anterior del cuerpo
+  static final int MAX_LENGTH = 4; // id, largo máximo
+  static final int TURN = 5;       // arg = dirección; id
+  static final int STEP = 6;       // arg = resultado | crece << 3; id, delta con la cabeza
+  static final int KILL = 7;       // arg = 1 si chocó con otra; id
+
+  private static final Board.MoveResult[] RESULTS = Board.MoveResult.values();
+
+  private ReplayFormat() {
+  }
+
+  static Board.MoveResult result(int ordinal) {
+    return RESULTS[ordinal];
+  }
+
+  // Resultados en los que la cabeza avanzó a la celda del evento
+  static boolean moved(int result) {
+    var r = RESULTS[result];
+    return r == Board.MoveResult.MOVED || r == Board.MoveResult.ATE_MOUSE || r == Board.MoveResult.ATE_TURBO
+        || r == Board.MoveResult.TELEPORTED;
+  }
+
+  // Evento en un long para la cola: tipo (4) | arg (4) | id (24) | valor (32)
+  static long pack(int type, int arg, int snakeId, int value) {
+    return type | (arg << 4) | ((long) (snakeId & 0xFFFFFF) << 8) | ((long) value << 32);
+  }
+
+  static int type(long event) {
+    return (int) event & 0xF;
+  }
+
+  static int arg(long event) {
+    return (int) (event >>> 4) & 0xF;
+  }
+
+  static int snakeId(long event) {
+    return (int) (event >>> 8) & 0xFFFFFF;
+  }
+
+  static int value(long event) {
+    return (int) (event >>> 32);
+  }
+
+  static void putVarint(ByteBuffer buf, long v) {
+    while ((v & ~0x7FL) != 0) {
+      buf.put((byte) ((v & 0x7F) | 0x80));
+      v >>>= 7;
+    }
+    buf.put((byte) v);
+  }
+
+  static long getVarint(ByteBuffer buf) {
+    long v = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = buf.get();
+      v |= (long) (b & 0x7F) << shift;
+      if (b >= 0)
+        return v;
+    }
+    throw new IllegalStateException("Malformed varint");
+  }
+
+  static void putSigned(ByteBuffer buf, long v) {
+    putVarint(buf, (v << 1) ^ (v >> 63));
+  }
+
+  static long getSigned(ByteBuffer buf) {
+    long z = getVarint(buf);
+    return (z >>> 1) ^ -(z & 1);
+  }
+}
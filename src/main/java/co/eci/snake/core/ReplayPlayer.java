@@ -0,0 +1,241 @@
+package co.eci.snake.core;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static co.eci.snake.core.ReplayFormat.*;
+
+// Reproduce un log grabado con ReplayRecorder sobre un Board propio. Ese Board
+// publica frames como uno normal, así que se puede mostrar en el GamePanel o
+// correr sin UI (más rápido que en tiempo real).
+public final class ReplayPlayer implements AutoCloseable {
+  private static final int MAX_EVENT_BYTES = 32;
+  // Sin pausas: publicar un frame cada tanto para la UI
+  private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+  private static final Direction[] DIRECTIONS = Direction.values();
+
+  private final FileChannel channel;
+  private final ByteBuffer in = ByteBuffer.allocate(1 << 16);
+  private boolean eof = false;
+
+  private final Board board;
+  private final List<Snake> added = new ArrayList<>();
+  private Snake[] byId = new Snake[64];
+  private int[] heads = new int[64];
+  private int[] tails = new int[64];
+
+  private long micros = 0; // tiempo del último evento, relativo al inicio
+  private long eventCount = 0;
+
+  private ReplayPlayer(FileChannel channel) throws IOException {
+    this.channel = channel;
+    in.flip();
+    fill(4);
+    try {
+      if (in.getInt() != MAGIC)
+        throw new IOException("Not a snake replay file");
+      fill(MAX_EVENT_BYTES);
+      int version = (int) getVarint(in);
+      if (version != VERSION)
+        throw new IOException("Unsupported replay version: " + version);
+      int width = (int) getVarint(in);
+      int height = (int) getVarint(in);
+      int entries = (int) getVarint(in);
+      int[] teleports = new int[entries * 2];
+      for (int i = 0; i < teleports.length; i++) {
+        fill(MAX_EVENT_BYTES);
+        teleports[i] = (int) getVarint(in);
+      }
+      this.board = Board.empty(width, height, teleports, null);
+    } catch (BufferUnderflowException | IllegalStateException e) {
+      throw new IOException("Truncated replay header", e);
+    }
+  }
+
+  public static ReplayPlayer open(Path file) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      return new ReplayPlayer(channel);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  public Board board() {
+    return board;
+  }
+
+  // Serpientes en el orden en que aparecieron en el log
+  public List<Snake> snakes() {
+    return List.copyOf(added);
+  }
+
+  public long events() {
+    return eventCount;
+  }
+
+  // Tiempo grabado del último evento aplicado
+  public long elapsedMicros() {
+    return micros;
+  }
+
+  // Aplica los eventos iniciales (items y serpientes) sin esperar: deja el
+  // tablero listo para mostrarlo antes de reproducir
+  public void prepare() throws IOException {
+    while (true) {
+      int type = peekType();
+      if (type != SPAWN && type != ADD && type != SEGMENT && type != MAX_LENGTH)
+        return;
+      next();
+    }
+  }
+
+  // Aplica el siguiente evento; false al llegar al final del log
+  public boolean next() throws IOException {
+    fill(MAX_EVENT_BYTES);
+    if (!in.hasRemaining())
+      return false;
+    int mark = in.position();
+    try {
+      apply();
+      eventCount++;
+      return true;
+    } catch (BufferUnderflowException e) {
+      // Último evento cortado (grabación interrumpida): se descarta
+      in.position(mark);
+      in.limit(mark);
+      return false;
+    }
+  }
+
+  // Reproduce hasta el final. speed > 0 respeta los tiempos grabados
+  // (2.0 = el doble de rápido); speed <= 0 va sin pausas. Con publishFrames el
+  // Board publica frames para la UI. Respeta la pausa del GameState.
+  public void play(double speed, GameState gameState, boolean publishFrames)
+      throws IOException, InterruptedException {
+    if (gameState != null)
+      gameState.register();
+    try {
+      playEvents(speed, gameState, publishFrames);
+    } finally {
+      if (gameState != null)
+        gameState.deregister();
+    }
+  }
+
+  private void playEvents(double speed, GameState gameState, boolean publishFrames)
+      throws IOException, InterruptedException {
+    long start = System.nanoTime();
+    long lastFrame = start;
+    long pausedNanos = 0;
+    while (next()) {
+      if (gameState != null && gameState.isPaused()) {
+        if (publishFrames)
+          board.publishFrame();
+        long p = System.nanoTime();
+        gameState.awaitIfPaused();
+        pausedNanos += System.nanoTime() - p;
+      }
+      if (speed > 0) {
+        long due = start + pausedNanos + (long) (TimeUnit.MICROSECONDS.toNanos(micros) / speed);
+        long wait = due - System.nanoTime();
+        if (wait > 0) {
+          if (publishFrames)
+            board.publishFrame();
+          TimeUnit.NANOSECONDS.sleep(wait);
+        }
+      } else if (publishFrames && System.nanoTime() - lastFrame >= FRAME_NANOS) {
+        board.publishFrame();
+        lastFrame = System.nanoTime();
+      }
+    }
+    if (publishFrames)
+      board.publishFrame();
+  }
+
+  private void apply() {
+    int tag = in.get() & 0xFF;
+    int type = tag & 0xF;
+    int arg = tag >>> 4;
+    micros += getSigned(in);
+    switch (type) {
+      case SPAWN -> board.replaySpawn(arg, (int) getVarint(in));
+      case ADD -> {
+        int id = (int) getVarint(in);
+        int cell = (int) getVarint(in);
+        ensureId(id);
+        Snake snake = Snake.of(cell % board.width(), cell / board.width(), DIRECTIONS[arg]);
+        board.addSnake(snake);
+        byId[id] = snake;
+        added.add(snake);
+        heads[id] = cell;
+        tails[id] = cell;
+      }
+      case SEGMENT -> {
+        int id = (int) getVarint(in);
+        int cell = tails[id] + (int) getSigned(in);
+        tails[id] = cell;
+        byId[id].appendTail(cell % board.width(), cell / board.width());
+      }
+      case MAX_LENGTH -> {
+        int id = (int) getVarint(in);
+        byId[id].restoreMaxLength((int) getVarint(in));
+      }
+      case TURN -> byId[(int) getVarint(in)].turn(DIRECTIONS[arg]);
+      case STEP -> {
+        int id = (int) getVarint(in);
+        int cell = heads[id] + (int) getSigned(in);
+        int result = arg & 7;
+        if (moved(result)) {
+          heads[id] = cell;
+          board.replayStep(byId[id], cell, (arg & 8) != 0);
+        }
+      }
+      case KILL -> {
+        int id = (int) getVarint(in);
+        board.killSnake(byId[id], arg != 0);
+      }
+      default -> throw new IllegalStateException("Unknown replay event: " + type);
+    }
+  }
+
+  private void ensureId(int id) {
+    if (id >= byId.length) {
+      int n = Math.max(id + 1, byId.length * 2);
+      byId = Arrays.copyOf(byId, n);
+      heads = Arrays.copyOf(heads, n);
+      tails = Arrays.copyOf(tails, n);
+    }
+  }
+
+  private int peekType() throws IOException {
+    fill(1);
+    return in.hasRemaining() ? in.get(in.position()) & 0xF : -1;
+  }
+
+  // Asegura al menos n bytes en el buffer (menos si se acaba el archivo)
+  private void fill(int n) throws IOException {
+    if (in.remaining() >= n || eof)
+      return;
+    in.compact();
+    while (in.position() < n && !eof) {
+      if (channel.read(in) < 0)
+        eof = true;
+    }
+    in.flip();
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,231 @@
+package co.eci.snake.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+import static co.eci.snake.core.ReplayFormat.*;
+
+// Graba los eventos de un Board en un log binario (ver ReplayFormat).
+// En el hilo que mueve la serpiente solo se arma un long y se encola sin locks
+// en un EventRing; un hilo escritor codifica por lotes y escribe con un
+// FileChannel a través de un buffer directo.
+public final class ReplayRecorder implements AutoCloseable {
+  private static final int RING_CAPACITY = 1 << 16;
+  private static final int BATCH = 4096;
+  private static final int MAX_EVENT_BYTES = 32;
+
+  private final Board board;
+  private final FileChannel channel;
+  private final EventRing ring = new EventRing(RING_CAPACITY);
+  private final ByteBuffer out = ByteBuffer.allocateDirect(1 << 16);
+  private final Thread writer;
+  private final AtomicBoolean closed = new AtomicBoolean();
+  private volatile boolean stopping = false;
+  private volatile IOException failure;
+
+  // Estado del codificador (solo el hilo escritor)
+  private long lastMicros;
+  private int[] heads = new int[64];
+  private int[] tails = new int[64];
+  private volatile long eventCount = 0;
+
+  private ReplayRecorder(Board board, FileChannel channel) {
+    this.board = board;
+    this.channel = channel;
+    this.lastMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime());
+    this.writer = new Thread(this::writeLoop, "replay-writer");
+    writer.setDaemon(true);
+  }
+
+  // Crea el archivo, escribe la cabecera y el estado actual del tablero y
+  // empieza a grabar. Llamar antes de arrancar la simulación.
+  public static ReplayRecorder start(Board board, Path file) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+    ReplayRecorder recorder = new ReplayRecorder(board, channel);
+    try {
+      recorder.writeHeader();
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    recorder.writer.start();
+    board.record(recorder.new Sink());
+    return recorder;
+  }
+
+  private void writeHeader() throws IOException {
+    out.putInt(MAGIC);
+    putVarint(out, VERSION);
+    putVarint(out, board.width());
+    putVarint(out, board.height());
+    Map<Position, Position> teleports = board.teleports();
+    putVarint(out, teleports.size());
+    for (var e : teleports.entrySet()) {
+      putVarint(out, e.getKey().y() * board.width() + e.getKey().x());
+      putVarint(out, e.getValue().y() * board.width() + e.getValue().x());
+      if (out.remaining() < MAX_EVENT_BYTES)
+        flush();
+    }
+    flush();
+  }
+
+  // Eventos escritos hasta ahora
+  public long events() {
+    return eventCount;
+  }
+
+  // Deja de grabar, escribe lo pendiente y cierra el archivo. Idempotente.
+  @Override
+  public void close() throws IOException {
+    if (!closed.compareAndSet(false, true))
+      return;
+    board.record(null);
+    stopping = true;
+    LockSupport.unpark(writer);
+    try {
+      writer.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    channel.close();
+    if (failure != null)
+      throw failure;
+  }
+
+  private void writeLoop() {
+    try {
+      while (true) {
+        boolean last = stopping; // leer antes de vaciar: lo encolado antes ya está visible
+        int n = ring.drain(this::encode, BATCH);
+        if (n == 0) {
+          flush();
+          if (last)
+            return;
+          LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+      }
+    } catch (IOException e) {
+      fail(e);
+    } catch (UncheckedIOException e) {
+      fail(e.getCause());
+    }
+  }
+
+  private void fail(IOException e) {
+    failure = e;
+    // Seguir vaciando la cola para no trabar a los productores
+    while (!stopping)
+      if (ring.drain((ev, t) -> {}, BATCH) == 0)
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+  }
+
+  private void encode(long event, long nanos) {
+    int type = type(event);
+    int id = snakeId(event);
+    int value = value(event);
+    long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+
+    out.put((byte) (type | (arg(event) << 4)));
+    putSigned(out, micros - lastMicros);
+    lastMicros = micros;
+    switch (type) {
+      case SPAWN -> putVarint(out, value);
+      case ADD -> {
+        ensureId(id);
+        putVarint(out, id);
+        putVarint(out, value);
+        heads[id] = value;
+        tails[id] = value;
+      }
+      case SEGMENT -> {
+        ensureId(id);
+        putVarint(out, id);
+        putSigned(out, value - tails[id]);
+        tails[id] = value;
+      }
+      case MAX_LENGTH -> {
+        putVarint(out, id);
+        putVarint(out, value);
+      }
+      case STEP -> {
+        ensureId(id);
+        putVarint(out, id);
+        putSigned(out, value - heads[id]);
+        if (moved(arg(event) & 7))
+          heads[id] = value;
+      }
+      default -> putVarint(out, id); // TURN, KILL
+    }
+    eventCount++;
+    if (out.remaining() < MAX_EVENT_BYTES)
+      flushUnchecked();
+  }
+
+  private void ensureId(int id) {
+    if (id >= heads.length) {
+      int n = Math.max(id + 1, heads.length * 2);
+      heads = Arrays.copyOf(heads, n);
+      tails = Arrays.copyOf(tails, n);
+    }
+  }
+
+  private void flushUnchecked() {
+    try {
+      flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private void flush() throws IOException {
+    out.flip();
+    while (out.hasRemaining())
+      channel.write(out);
+    out.clear();
+  }
+
+  // Adaptador del Board a la cola: un long por evento más la marca de tiempo
+  private final class Sink implements Board.EventSink {
+    @Override
+    public void spawned(int item, int cell) {
+      ring.offer(pack(SPAWN, item, 0, cell), System.nanoTime());
+    }
+
+    @Override
+    public void snakeAdded(int snakeId, int headCell, Direction dir, int maxLength) {
+      long now = System.nanoTime();
+      ring.offer(pack(ADD, dir.ordinal(), snakeId, headCell), now);
+      ring.offer(pack(MAX_LENGTH, 0, snakeId, maxLength), now);
+    }
+
+    @Override
+    public void segment(int snakeId, int cell) {
+      ring.offer(pack(SEGMENT, 0, snakeId, cell), System.nanoTime());
+    }
+
+    @Override
+    public void turned(int snakeId, Direction dir) {
+      ring.offer(pack(TURN, dir.ordinal(), snakeId, 0), System.nanoTime());
+    }
+
+    @Override
+    public void stepped(int snakeId, Board.MoveResult result, int cell, boolean grew) {
+      ring.offer(pack(STEP, result.ordinal() | (grew ? 8 : 0), snakeId, cell), System.nanoTime());
+    }
+
+    @Override
+    public void killed(int snakeId, boolean collidedWithOther) {
+      ring.offer(pack(KILL, collidedWithOther ? 1 : 0, snakeId, 0), System.nanoTime());
+    }
+  }
+}
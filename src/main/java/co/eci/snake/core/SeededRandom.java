@@ -0,0 +1,29 @@
+package co.eci.snake.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
+
+// Generador SplitMix64 compartido y sin locks para tableros con semilla. Todo
+// su estado es un long, así que un checkpoint puede guardarlo y la partida
+// restaurada sigue con la misma secuencia.
+final class SeededRandom implements RandomGenerator {
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+  private final AtomicLong state;
+
+  SeededRandom(long state) {
+    this.state = new AtomicLong(state);
+  }
+
+  @Override
+  public long nextLong() {
+    long z = state.addAndGet(GOLDEN_GAMMA);
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  long state() {
+    return state.get();
+  }
+}
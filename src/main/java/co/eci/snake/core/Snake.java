@@ -2,32 +2,164 @@ package co.eci.snake.core;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
-import java.util.List;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+import co.eci.snake.metrics.Metrics;
 
 public final class Snake {
 
-  // ReadWriteLock permite múltiples lectores simultáneos (UI puede leer mientras
-  // otras serpientes también leen) pero solo un escritor a la vez. Esto minimiza
-  // contención:
-  // la UI NO bloquea a otras UIs, solo bloquea cuando la serpiente se mueve.
-  private final ReadWriteLock bodyLock = new ReentrantReadWriteLock();
+  // StampedLock: un solo escritor (advance) y lectores optimistas. El lector
+  // copia sin tomar el lock y valida el stamp; solo si advance() escribió en el
+  // medio reintenta con el read lock. Sin escritor, leer no escribe memoria
+  // compartida (no hay tráfico de cache como con ReentrantReadWriteLock).
+  private final StampedLock bodyLock = new StampedLock();
+
+  // Cuerpo en un ring buffer de celdas empaquetadas (x << 16 | y): mover la
+  // serpiente no crea objetos. ring[headIdx] es la cabeza; crece al doble cuando
+  // el cuerpo no cabe.
+  private int[] ring = new int[8];
+  private int headIdx = 0;
+  private int size = 0;
+
+  // Copias volatile para lecturas sin lock: head() y length() son una lectura
+  private volatile int headCell;
+  private volatile int length;
 
-  private final Deque<Position> body = new ArrayDeque<>();
+  // Buffer por hilo para las lecturas optimistas de forEachCell (sin asignar)
+  private static final ThreadLocal<int[]> SCRATCH = ThreadLocal.withInitial(() -> new int[64]);
 
   // Volatile
   private volatile Direction direction;
 
   private int maxLength = 5;
 
-  private Snake(Position start, Direction dir) {
-    body.addFirst(start);
+  // Movimientos hechos (un solo escritor: advance con el write lock)
+  private volatile long moves = 0;
+
+  // Grilla de ocupación del Board al que pertenece (null si no está en un tablero)
+  private OccupancyGrid grid;
+  private int id = OccupancyGrid.EMPTY;
+
+  // Entrada en el ranking del Board; se cambia con el write lock
+  private Leaderboard leaderboard;
+  private Leaderboard.Entry rank;
+
+  // Grabación de replays del Board (null = no se graba)
+  private volatile Board.EventSink events;
+
+  // Lote de Board.stepAll que la tiene (StepBatch.add); lo toca solo el hilo
+  // dueño del lote
+  StepBatch batch;
+
+  // Recorrido del cuerpo sin copias: i = 0 es la cabeza
+  @FunctionalInterface
+  public interface CellVisitor {
+    void visit(int i, int x, int y);
+  }
+
+  private Snake(int x, int y, Direction dir) {
+    ring[0] = pack(x, y);
+    size = 1;
+    headCell = ring[0];
+    length = 1;
     this.direction = dir;
   }
 
   public static Snake of(int x, int y, Direction dir) {
-    return new Snake(new Position(x, y), dir);
+    return new Snake(x, y, dir);
+  }
+
+  static int pack(int x, int y) {
+    return (x << 16) | (y & 0xFFFF);
+  }
+
+  static int cellX(int cell) {
+    return cell >>> 16;
+  }
+
+  static int cellY(int cell) {
+    return cell & 0xFFFF;
+  }
+
+  private int cellAt(int i) {
+    return ring[(headIdx + i) & (ring.length - 1)];
+  }
+
+  // Board asigna el id, la grilla y el ranking al agregar la serpiente; seq es
+  // su número de alta (desempate del ranking)
+  void attach(OccupancyGrid grid, int id, int seq, Leaderboard leaderboard) {
+    long stamp = bodyLock.writeLock();
+    try {
+      this.grid = grid;
+      this.id = id;
+      for (int i = 0; i < size; i++)
+        grid.claim(cellX(cellAt(i)), cellY(cellAt(i)), id);
+      this.leaderboard = leaderboard;
+      this.rank = leaderboard.add(this, seq, size);
+    } finally {
+      bodyLock.unlockWrite(stamp);
+    }
+  }
+
+  // Al morir la serpiente libera sus celdas de la grilla
+  void detach() {
+    long stamp = bodyLock.writeLock();
+    try {
+      if (grid != null) {
+        for (int i = 0; i < size; i++)
+          grid.release(cellX(cellAt(i)), cellY(cellAt(i)), id);
+      }
+      grid = null;
+      if (rank != null)
+        leaderboard.remove(rank);
+      rank = null;
+    } finally {
+      bodyLock.unlockWrite(stamp);
+    }
+  }
+
+  int id() {
+    return id;
+  }
+
+  void listen(Board.EventSink sink) {
+    this.events = sink;
+  }
+
+  int maxLength() {
+    long stamp = bodyLock.readLock();
+    try {
+      return maxLength;
+    } finally {
+      bodyLock.unlockRead(stamp);
+    }
+  }
+
+  // Para reconstruir serpientes desde un replay: largo máximo actual
+  void restoreMaxLength(int maxLength) {
+    long stamp = bodyLock.writeLock();
+    try {
+      this.maxLength = maxLength;
+    } finally {
+      bodyLock.unlockWrite(stamp);
+    }
+  }
+
+  // Para reconstruir serpientes desde un replay: agrega una celda en la cola
+  void appendTail(int x, int y) {
+    long stamp = bodyLock.writeLock();
+    try {
+      if (size == ring.length)
+        grow();
+      ring[(headIdx + size) & (ring.length - 1)] = pack(x, y);
+      size++;
+      if (grid != null)
+        grid.claim(x, y, id);
+      length = size;
+      rerank();
+    } finally {
+      bodyLock.unlockWrite(stamp);
+    }
   }
 
   // direction es volatile. La lectura es atómica y siempre ve el valor más
@@ -44,40 +176,158 @@ public final class Snake {
         (direction == Direction.RIGHT && dir == Direction.LEFT)) {
       return;
     }
+    if (direction == dir)
+      return;
     this.direction = dir;
+    Board.EventSink sink = events;
+    if (sink != null)
+      sink.turned(id, dir);
   }
 
-  // bloquea si advance() está escribiendo.
+  // Lectura volatile sin lock ni contención
   public Position head() {
-    bodyLock.readLock().lock();
-    try {
-      return body.peekFirst();
-    } finally {
-      bodyLock.readLock().unlock();
-    }
+    int cell = headCell;
+    return new Position(cellX(cell), cellY(cell));
+  }
+
+  // Cabeza empaquetada, sin crear Position
+  int headCell() {
+    return headCell;
+  }
+
+  public int length() {
+    return length;
+  }
+
+  public long moves() {
+    return moves;
   }
 
+  // Copia del cuerpo (API previa). Para recorrer sin copiar usar forEachCell.
   public Deque<Position> snapshot() {
-    bodyLock.readLock().lock();
+    int[] cells = copyCells(null);
+    int n = cells[cells.length - 1];
+    Deque<Position> copy = new ArrayDeque<>(n);
+    for (int i = 0; i < n; i++)
+      copy.addLast(new Position(cellX(cells[i]), cellY(cells[i])));
+    return copy;
+  }
+
+  // Recorre una copia consistente del cuerpo sin asignar memoria.
+  // El visitor no debe llamar forEachCell de otra serpiente (comparten buffer).
+  public void forEachCell(CellVisitor visitor) {
+    int[] scratch = SCRATCH.get();
+    int[] cells = copyCells(scratch);
+    if (cells != scratch)
+      SCRATCH.set(cells); // creció: conservarlo para la próxima
+    int n = cells[cells.length - 1];
+    for (int i = 0; i < n; i++)
+      visitor.visit(i, cellX(cells[i]), cellY(cells[i]));
+  }
+
+  // Copia el cuerpo a dst (o a un arreglo nuevo si no cabe) con lectura
+  // optimista; el largo queda en la última posición del arreglo.
+  private int[] copyCells(int[] dst) {
+    long stamp = bodyLock.tryOptimisticRead();
+    if (stamp != 0) {
+      int[] r = ring;
+      int h = headIdx;
+      int n = size;
+      if (n >= 0 && n <= r.length) {
+        int[] out = (dst != null && dst.length > n) ? dst : new int[n + 1];
+        int mask = r.length - 1;
+        for (int i = 0; i < n; i++)
+          out[i] = r[(h + i) & mask];
+        out[out.length - 1] = n;
+        if (bodyLock.validate(stamp))
+          return out;
+      }
+    }
+    // Hubo una escritura concurrente: reintentar con el read lock
+    stamp = readLockMeasured();
     try {
-      return new ArrayDeque<>(body);
+      int n = size;
+      int[] out = (dst != null && dst.length > n) ? dst : new int[n + 1];
+      for (int i = 0; i < n; i++)
+        out[i] = cellAt(i);
+      out[out.length - 1] = n;
+      return out;
     } finally {
-      bodyLock.readLock().unlock();
+      bodyLock.unlockRead(stamp);
     }
   }
 
   // WRITE lock bloquea todas las lecturas durante la modificación.
 
   public void advance(Position newHead, boolean grow) {
-    bodyLock.writeLock().lock();
+    advance(newHead.x(), newHead.y(), grow);
+  }
+
+  public void advance(int x, int y, boolean grow) {
+    long stamp = writeLockMeasured();
     try {
-      body.addFirst(newHead);
+      if (size == ring.length)
+        grow();
+      headIdx = (headIdx - 1) & (ring.length - 1);
+      ring[headIdx] = pack(x, y);
+      size++;
+      // Board.step ya reclamó la celda; si ya es nuestra el claim no cambia nada
+      if (grid != null)
+        grid.claim(x, y, id);
       if (grow)
         maxLength++;
-      while (body.size() > maxLength)
-        body.removeLast();
+      while (size > maxLength) {
+        int tail = cellAt(size - 1);
+        size--;
+        if (grid != null)
+          grid.release(cellX(tail), cellY(tail), id);
+      }
+      headCell = ring[headIdx];
+      if (length != size) {
+        length = size;
+        rerank();
+      }
+      moves++;
     } finally {
-      bodyLock.writeLock().unlock();
+      bodyLock.unlockWrite(stamp);
     }
+    if (Metrics.ENABLED)
+      Metrics.MOVES.increment();
+  }
+
+  // Solo se mide cuando el intento sin espera falla
+  private long writeLockMeasured() {
+    long stamp = bodyLock.tryWriteLock();
+    if (stamp != 0 || !Metrics.ENABLED)
+      return stamp != 0 ? stamp : bodyLock.writeLock();
+    long start = System.nanoTime();
+    stamp = bodyLock.writeLock();
+    Metrics.SNAKE_WRITE_WAIT.record(System.nanoTime() - start);
+    return stamp;
+  }
+
+  private long readLockMeasured() {
+    long stamp = bodyLock.tryReadLock();
+    if (stamp != 0 || !Metrics.ENABLED)
+      return stamp != 0 ? stamp : bodyLock.readLock();
+    long start = System.nanoTime();
+    stamp = bodyLock.readLock();
+    Metrics.SNAKE_READ_WAIT.record(System.nanoTime() - start);
+    return stamp;
+  }
+
+  // Solo con el write lock tomado y cuando cambió el largo
+  private void rerank() {
+    if (rank != null)
+      rank = leaderboard.update(rank, size);
+  }
+
+  // Duplica la capacidad dejando la cabeza en la posición 0
+  private void grow() {
+    int[] bigger = new int[ring.length * 2];
+    for (int i = 0; i < size; i++)
+      bigger[i] = cellAt(i);
+    ring = bigger;
+    headIdx = 0;
   }
 }
@@ -0,0 +1,26 @@
+package co.eci.snake.core;
+
+// Estrategia de giro de una serpiente. Los motores la llaman una vez por
+// serpiente que va a moverse, todas con la misma vista del tablero (el
+// TickEngine en su fase resolve, en paralelo), así que una implementación no
+// guarda estado mutable compartido.
+public interface SnakeBrain {
+  // Giro antes del paso (null = sigue derecho). random: 64 bits aleatorios que
+  // pone el motor (del hash determinista en el TickEngine).
+  Direction decide(Snake snake, BrainView view, boolean turbo, long random);
+
+  // "random" (giros al azar, el comportamiento original), "greedy" (hacia el
+  // ratón más cercano) o "flood" (greedy evitando encerrarse)
+  static SnakeBrain of(String name) {
+    return switch (name) {
+      case "random" -> RandomBrain.INSTANCE;
+      case "greedy" -> new GreedyBrain();
+      case "flood" -> new FloodFillBrain();
+      default -> throw new IllegalArgumentException("Unknown brain: " + name);
+    };
+  }
+
+  static SnakeBrain random() {
+    return RandomBrain.INSTANCE;
+  }
+}
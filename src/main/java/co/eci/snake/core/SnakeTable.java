@@ -0,0 +1,359 @@
+package co.eci.snake.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Serpientes del Board. Dos índices:
+// - Ranuras, para el id: las liberadas se reutilizan (pila sin locks), así que
+//   los ids no crecen con las altas totales (traspasos de World). El id lleva
+//   la ranura y una generación que cambia con cada reuso: un id viejo que quede
+//   en la grilla no se confunde con el de la serpiente nueva. Cabe en 24 bits,
+//   como lo guarda ReplayFormat.
+// - Orden de alta: cada alta toma el siguiente número de secuencia, y las vivas
+//   se marcan en un bitmap por bloques de números. Recorrer, snapshot() y
+//   rank() van por este orden, el de la lista de siempre (las altas al final).
+//   Morir es soltar la referencia y limpiar un bit (CAS), sin copiar nada; un
+//   bloque con todas sus altas ya muertas se descarta, así que la memoria sigue
+//   a la población viva.
+//
+// generation() cambia con cada alta o baja: snapshot() reutiliza la última
+// lista mientras no cambie (la UI la pide en cada frame).
+final class SnakeTable implements Iterable<Snake> {
+  private static final int CHUNK_BITS = 10;
+  private static final int CHUNK = 1 << CHUNK_BITS; // ranuras o altas por bloque
+  private static final int WORDS = CHUNK >>> 6;
+  static final int SLOT_BITS = 20;
+  static final int MAX_SLOTS = 1 << SLOT_BITS;
+  private static final int GENERATION_MASK = 0xF; // id = (generación << SLOT_BITS | ranura) + 1
+
+  private static final class SlotChunk {
+    // Siguiente ranura libre + 1 (0 = fin) mientras la ranura está en la pila
+    final AtomicIntegerArray nextFree = new AtomicIntegerArray(CHUNK);
+    // Número de alta de la serpiente que ocupa la ranura
+    final AtomicIntegerArray sequence = new AtomicIntegerArray(CHUNK);
+    // Solo la toca quien sacó la ranura (el CAS de la pila la publica)
+    final int[] generations = new int[CHUNK];
+  }
+
+  // CHUNK números de alta consecutivos
+  private static final class OrderChunk {
+    final AtomicReferenceArray<Snake> snakes = new AtomicReferenceArray<>(CHUNK);
+    final AtomicLongArray alive = new AtomicLongArray(WORDS);
+    final AtomicInteger live = new AtomicInteger(); // bits prendidos
+    // Altas del bloque que no murieron todavía (0: vacío para siempre)
+    final AtomicInteger open = new AtomicInteger(CHUNK);
+  }
+
+  // Bloques de orden desde el bloque base; los anteriores ya se vaciaron. Un
+  // bloque vaciado en el medio queda en null.
+  private record Order(int base, OrderChunk[] chunks) {}
+
+  private record Snapshot(long generation, List<Snake> snakes) {}
+
+  private volatile SlotChunk[] slots = new SlotChunk[0];
+  private volatile Order order = new Order(0, new OrderChunk[0]);
+  private final Object growLock = new Object();
+  private final AtomicInteger fresh = new AtomicInteger(); // primera ranura nunca entregada
+  // Tope de la pila de libres: ranura + 1 en los 32 bits bajos y un contador de
+  // cambios en los altos (un pop con un tope viejo no gana el CAS: sin ABA)
+  private final AtomicLong freeTop = new AtomicLong();
+  private final AtomicInteger nextSequence = new AtomicInteger();
+  private final AtomicInteger alive = new AtomicInteger();
+  private final AtomicLong generation = new AtomicLong();
+  private volatile Snapshot cached = new Snapshot(0, List.of());
+
+  // Id para una serpiente nueva: una ranura libre si hay, si no una sin usar
+  int allocate() {
+    int slot = popFree();
+    if (slot < 0) {
+      slot = fresh.getAndIncrement();
+      if (slot >= MAX_SLOTS) {
+        fresh.decrementAndGet();
+        throw new IllegalStateException("too many live snakes (max " + MAX_SLOTS + ")");
+      }
+      slotChunk(slot, true);
+      return slot + 1;
+    }
+    SlotChunk c = slotChunk(slot, false);
+    int i = slot & (CHUNK - 1);
+    int gen = (c.generations[i] + 1) & GENERATION_MASK;
+    c.generations[i] = gen;
+    return (gen << SLOT_BITS | slot) + 1;
+  }
+
+  static int slotOf(int id) {
+    return (id - 1) & (MAX_SLOTS - 1);
+  }
+
+  // Número de alta para la próxima add(): decide su lugar en snapshot() y el
+  // desempate del ranking (a igual largo, la más antigua)
+  int nextSequence() {
+    int seq = nextSequence.getAndIncrement();
+    if (seq < 0 || seq > Integer.MAX_VALUE - CHUNK) {
+      nextSequence.decrementAndGet();
+      throw new IllegalStateException("too many snakes added");
+    }
+    return seq;
+  }
+
+  // La ranura del id vuelve a la pila de libres. Se llama después de soltar la
+  // serpiente (remove) y sus celdas de la grilla.
+  void free(int id) {
+    int slot = slotOf(id);
+    SlotChunk c = slotChunk(slot, false);
+    if (c == null)
+      throw new IllegalArgumentException("unknown snake id " + id);
+    while (true) {
+      long top = freeTop.get();
+      c.nextFree.set(slot & (CHUNK - 1), (int) top);
+      if (freeTop.compareAndSet(top, ((top >>> 32) + 1) << 32 | (slot + 1)))
+        return;
+    }
+  }
+
+  private int popFree() {
+    while (true) {
+      long top = freeTop.get();
+      int slot = (int) top - 1;
+      if (slot < 0)
+        return -1;
+      int next = slotChunk(slot, false).nextFree.get(slot & (CHUNK - 1));
+      if (freeTop.compareAndSet(top, ((top >>> 32) + 1) << 32 | (next & 0xFFFFFFFFL)))
+        return slot;
+    }
+  }
+
+  // Alta con un id de allocate() y un número de nextSequence()
+  void add(int id, int seq, Snake snake) {
+    if (id <= 0)
+      throw new IllegalArgumentException("id must be positive");
+    int slot = slotOf(id);
+    slotChunk(slot, true).sequence.set(slot & (CHUNK - 1), seq);
+    OrderChunk c = orderChunk(seq, true);
+    int i = seq & (CHUNK - 1);
+    c.snakes.set(i, snake);
+    setBit(c.alive, i);
+    c.live.incrementAndGet();
+    alive.incrementAndGet();
+    generation.incrementAndGet();
+  }
+
+  // true si el id estaba vivo con esa serpiente. Suelta la referencia (CAS
+  // contra la esperada: gana un solo remove); la ranura sigue ocupada hasta
+  // free().
+  boolean remove(int id, Snake snake) {
+    int slot = slotOf(id);
+    SlotChunk sc = id > 0 ? slotChunk(slot, false) : null;
+    if (sc == null)
+      return false;
+    int seq = sc.sequence.get(slot & (CHUNK - 1));
+    OrderChunk c = orderChunk(seq, false);
+    int i = seq & (CHUNK - 1);
+    if (c == null || !c.snakes.compareAndSet(i, snake, null))
+      return false;
+    clearBit(c.alive, i);
+    c.live.decrementAndGet();
+    alive.decrementAndGet();
+    generation.incrementAndGet();
+    if (c.open.decrementAndGet() == 0)
+      retire(seq >>> CHUNK_BITS);
+    return true;
+  }
+
+  // Posición del id entre las vivas (su índice en snapshot()): vivas de los
+  // bloques anteriores más los bits anteriores del suyo. Llamar antes de free().
+  int rank(int id) {
+    int slot = slotOf(id);
+    SlotChunk sc = slotChunk(slot, false);
+    if (sc == null)
+      throw new IllegalArgumentException("unknown snake id " + id);
+    int seq = sc.sequence.get(slot & (CHUNK - 1));
+    Order o = order;
+    OrderChunk[] cs = o.chunks();
+    int k = (seq >>> CHUNK_BITS) - o.base();
+    int rank = 0;
+    for (int j = 0; j < Math.min(k, cs.length); j++) {
+      if (cs[j] != null)
+        rank += cs[j].live.get();
+    }
+    OrderChunk c = k >= 0 && k < cs.length ? cs[k] : null;
+    if (c != null) {
+      int upTo = seq & (CHUNK - 1);
+      int w = 0;
+      for (; w < upTo >>> 6; w++)
+        rank += Long.bitCount(c.alive.get(w));
+      if ((upTo & 63) != 0)
+        rank += Long.bitCount(c.alive.get(w) & ((1L << upTo) - 1));
+    }
+    return rank;
+  }
+
+  int size() {
+    return alive.get();
+  }
+
+  long generation() {
+    return generation.get();
+  }
+
+  // Vivas en orden de alta, inmutable; la misma lista mientras nada cambie
+  List<Snake> snapshot() {
+    Snapshot s = cached;
+    long gen = generation.get();
+    if (s.generation() == gen)
+      return s.snakes();
+    List<Snake> out = new ArrayList<>(alive.get());
+    for (Snake snake : this)
+      out.add(snake);
+    List<Snake> list = List.copyOf(out);
+    cached = new Snapshot(gen, list); // gen leído antes de recorrer
+    return list;
+  }
+
+  // Recorre las vivas en orden de alta sin copiar (vista débilmente consistente)
+  @Override
+  public Iterator<Snake> iterator() {
+    return new Iterator<>() {
+      // Los números antes que los bloques: un bloque existe antes de que su
+      // alta termine
+      private final int end = nextSequence.get();
+      private final Order o = order;
+      private int seq = (o.base() << CHUNK_BITS) - 1;
+      private Snake next = advance();
+
+      // Siguiente alta con el bit prendido y la serpiente todavía puesta (un
+      // remove concurrente suelta la referencia antes de limpiar el bit)
+      private Snake advance() {
+        OrderChunk[] cs = o.chunks();
+        int from = seq + 1;
+        while (from < end) {
+          int k = (from >>> CHUNK_BITS) - o.base();
+          if (k >= cs.length)
+            break;
+          OrderChunk c = cs[k];
+          if (c == null) { // bloque vaciado
+            from = (from | (CHUNK - 1)) + 1;
+            continue;
+          }
+          int i = from & (CHUNK - 1);
+          long word = c.alive.get(i >>> 6) & (-1L << i);
+          if (word == 0) {
+            from = (from | 63) + 1;
+            continue;
+          }
+          seq = (from & ~63) + Long.numberOfTrailingZeros(word);
+          if (seq >= end)
+            break;
+          Snake s = c.snakes.get(seq & (CHUNK - 1));
+          if (s != null)
+            return s;
+          from = seq + 1;
+        }
+        seq = end;
+        return null;
+      }
+
+      @Override
+      public boolean hasNext() {
+        return next != null;
+      }
+
+      @Override
+      public Snake next() {
+        if (next == null)
+          throw new NoSuchElementException();
+        Snake s = next;
+        next = advance();
+        return s;
+      }
+    };
+  }
+
+  private SlotChunk slotChunk(int slot, boolean create) {
+    int k = slot >>> CHUNK_BITS;
+    SlotChunk[] cs = slots;
+    if (k < cs.length)
+      return cs[k];
+    if (!create)
+      return null;
+    synchronized (growLock) {
+      cs = slots;
+      if (k >= cs.length) {
+        SlotChunk[] bigger = Arrays.copyOf(cs, Math.max(k + 1, cs.length * 2));
+        for (int i = cs.length; i < bigger.length; i++)
+          bigger[i] = new SlotChunk();
+        slots = bigger;
+        cs = bigger;
+      }
+      return cs[k];
+    }
+  }
+
+  // null si el bloque del número ya se vació (o no existe y !create)
+  private OrderChunk orderChunk(int seq, boolean create) {
+    int k = seq >>> CHUNK_BITS;
+    Order o = order;
+    if (k < o.base())
+      return null;
+    if (k - o.base() < o.chunks().length)
+      return o.chunks()[k - o.base()];
+    if (!create)
+      return null;
+    synchronized (growLock) {
+      o = order;
+      OrderChunk[] cs = o.chunks();
+      if (k - o.base() >= cs.length) {
+        // Al crecer se dejan afuera los bloques vaciados del principio
+        int skip = 0;
+        while (skip < cs.length && cs[skip] == null)
+          skip++;
+        int base = o.base() + skip;
+        OrderChunk[] bigger = new OrderChunk[Math.max(k - base + 1, (cs.length - skip) * 2)];
+        System.arraycopy(cs, skip, bigger, 0, cs.length - skip);
+        for (int i = cs.length - skip; i < bigger.length; i++)
+          bigger[i] = new OrderChunk();
+        o = new Order(base, bigger);
+        order = o;
+      }
+      return o.chunks()[k - o.base()];
+    }
+  }
+
+  // Todas las altas del bloque murieron: nadie más lo usa
+  private void retire(int k) {
+    synchronized (growLock) {
+      Order o = order;
+      int i = k - o.base();
+      if (i >= 0 && i < o.chunks().length)
+        o.chunks()[i] = null;
+    }
+  }
+
+  private static void setBit(AtomicLongArray bits, int i) {
+    long mask = 1L << i;
+    while (true) {
+      long word = bits.get(i >>> 6);
+      if (bits.compareAndSet(i >>> 6, word, word | mask))
+        return;
+    }
+  }
+
+  private static boolean clearBit(AtomicLongArray bits, int i) {
+    long mask = 1L << i;
+    while (true) {
+      long word = bits.get(i >>> 6);
+      if ((word & mask) == 0)
+        return false;
+      if (bits.compareAndSet(i >>> 6, word, word & ~mask))
+        return true;
+    }
+  }
+}
@@ -0,0 +1,96 @@
+package co.eci.snake.core;
+
+import java.util.Arrays;
+
+// Lote de movimientos para Board.stepAll: serpientes, giro pedido (null = sigue
+// derecho) y el resultado de cada una. Los arreglos se reutilizan entre ticks;
+// un lote lo usa un solo hilo a la vez. Una serpiente va a lo sumo una vez por
+// lote: stepAll toma las franjas según la cabeza de antes del lote.
+public final class StepBatch {
+  private Snake[] snakes;
+  private Direction[] turns;
+  // Dirección con la que stepAll calculó las franjas: el movimiento usa esa
+  // aunque otro hilo (la UI) gire a la serpiente en el medio
+  private Direction[] headings;
+  private Board.MoveResult[] results;
+  private int size = 0;
+
+  // Ratones comidos en el lote: sus reposiciones se hacen al final, sin franjas tomadas
+  int eaten = 0;
+
+  public StepBatch(int capacity) {
+    if (capacity < 0)
+      throw new IllegalArgumentException("capacity must be non-negative");
+    int n = Math.max(capacity, 1);
+    snakes = new Snake[n];
+    turns = new Direction[n];
+    headings = new Direction[n];
+    results = new Board.MoveResult[n];
+  }
+
+  public void clear() {
+    for (int i = 0; i < size; i++) {
+      if (snakes[i].batch == this)
+        snakes[i].batch = null;
+    }
+    Arrays.fill(snakes, 0, size, null);
+    Arrays.fill(turns, 0, size, null);
+    Arrays.fill(headings, 0, size, null);
+    Arrays.fill(results, 0, size, null);
+    size = 0;
+    eaten = 0;
+  }
+
+  public void add(Snake snake, Direction turn) {
+    if (snake == null)
+      throw new IllegalArgumentException("snake cannot be null");
+    if (snake.batch == this)
+      throw new IllegalArgumentException("snake is already in this batch");
+    if (size == snakes.length) {
+      int n = size * 2;
+      snakes = Arrays.copyOf(snakes, n);
+      turns = Arrays.copyOf(turns, n);
+      headings = Arrays.copyOf(headings, n);
+      results = Arrays.copyOf(results, n);
+    }
+    snake.batch = this;
+    snakes[size] = snake;
+    turns[size] = turn;
+    size++;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public Snake snake(int i) {
+    return snakes[checkIndex(i)];
+  }
+
+  // Resultado de la serpiente i después de stepAll (null antes)
+  public Board.MoveResult result(int i) {
+    return results[checkIndex(i)];
+  }
+
+  Direction turn(int i) {
+    return turns[i];
+  }
+
+  Direction heading(int i) {
+    return headings[i];
+  }
+
+  void heading(int i, Direction dir) {
+    headings[i] = dir;
+  }
+
+  void result(int i, Board.MoveResult result) {
+    results[i] = result;
+  }
+
+  private int checkIndex(int i) {
+    if (i < 0 || i >= size)
+      throw new IndexOutOfBoundsException(i);
+    return i;
+  }
+}
@@ -0,0 +1,290 @@
+package co.eci.snake.core;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Mundo grande partido en cols x rows shards: cada shard es un Board propio
+// (con sus franjas, grilla y tabla de serpientes) movido por un solo hilo de su
+// executor, así que los shards no comparten ningún lock. Una serpiente que
+// cruza el borde de su shard (EXITED) reserva la celda de entrada en el vecino
+// (CAS en su grilla) y viaja en la HandoffQueue acotada de ese shard; en los
+// bordes del mundo da la vuelta al shard opuesto.
+//
+// El cuerpo no se parte entre shards: la serpiente entra al vecino con la
+// cabeza y vuelve a crecer hasta su largo en los movimientos siguientes. Con la
+// cola llena se queda en el borde y lo intenta en el tick siguiente.
+public final class World implements AutoCloseable {
+  private static final int INBOX_CAPACITY = 1024;
+  private static final int TURBO_MOVES = 100;
+
+  // Serpiente en viaje hacia un shard, con la entrada ya reservada
+  private record Arrival(Snake snake, int turboTicks) {}
+
+  private final int width;
+  private final int height;
+  private final int shardWidth;
+  private final int shardHeight;
+  private final int cols;
+  private final Shard[] shards; // fila por fila
+  private final List<Board> boards;
+  private final List<ExecutorService> executors = new ArrayList<>();
+  private volatile boolean running = false;
+
+  public World(int width, int height, int cols, int rows, long seed) {
+    if (cols <= 0 || rows <= 0)
+      throw new IllegalArgumentException("Shard grid must be positive");
+    if (width <= 0 || height <= 0 || width % cols != 0 || height % rows != 0)
+      throw new IllegalArgumentException("World size must be positive and divisible by the shard grid");
+    this.width = width;
+    this.height = height;
+    this.cols = cols;
+    this.shardWidth = width / cols;
+    this.shardHeight = height / rows;
+    this.shards = new Shard[cols * rows];
+    List<Board> list = new ArrayList<>(shards.length);
+    for (int i = 0; i < shards.length; i++) {
+      shards[i] = new Shard((i % cols) * shardWidth, (i / cols) * shardHeight, seed + i);
+      list.add(shards[i].board);
+    }
+    this.boards = List.copyOf(list);
+  }
+
+  public int width() {
+    return width;
+  }
+
+  public int height() {
+    return height;
+  }
+
+  public List<Board> shards() {
+    return boards;
+  }
+
+  // Reparte n serpientes en celdas libres al azar (antes de start)
+  public void populate(int n, long seed) {
+    if (running)
+      throw new IllegalStateException("World already started");
+    SplittableRandom rnd = new SplittableRandom(seed);
+    Direction[] dirs = Direction.values();
+    for (int i = 0; i < n; i++) {
+      Board board = shards[rnd.nextInt(shards.length)].board;
+      Position p = board.randomEmpty();
+      if (p == null)
+        continue; // shard lleno
+      board.addSnake(Snake.of(p.x(), p.y(), dirs[rnd.nextInt(dirs.length)]));
+    }
+  }
+
+  // Un hilo por shard. tickMillis == 0: cada shard a máxima velocidad.
+  public synchronized void start(long tickMillis) {
+    if (tickMillis < 0)
+      throw new IllegalArgumentException("tickMillis must be >= 0");
+    if (running)
+      return;
+    running = true;
+    for (int i = 0; i < shards.length; i++) {
+      Shard shard = shards[i];
+      String name = "shard-" + (i % cols) + "-" + (i / cols);
+      ExecutorService executor = Executors.newSingleThreadExecutor(r -> new Thread(r, name));
+      executors.add(executor);
+      executor.execute(() -> shard.loop(tickMillis));
+    }
+  }
+
+  // Estadísticas sumadas de todos los shards: la más larga de todas y la
+  // primera muerte por hora (el deathOrder de cada muerte es el de su shard)
+  public Board.Stats getStats() {
+    int alive = 0, dead = 0, collisions = 0;
+    Snake longest = null;
+    Board.DeadSnake first = null;
+    for (Shard shard : shards) {
+      Board.Stats s = shard.board.getStats();
+      alive += s.aliveCount();
+      dead += s.deadCount();
+      collisions += s.collisionCount();
+      if (s.longestAlive() != null && (longest == null || s.longestAlive().length() > longest.length()))
+        longest = s.longestAlive();
+      if (s.firstDead() != null && (first == null || s.firstDead().deathTime().isBefore(first.deathTime())))
+        first = s.firstDead();
+    }
+    return new Board.Stats(alive, dead, collisions, longest, first);
+  }
+
+  public long moves() {
+    long n = 0;
+    for (Shard shard : shards)
+      n += shard.moves;
+    return n;
+  }
+
+  // Serpientes que cruzaron a otro shard
+  public long handoffs() {
+    long n = 0;
+    for (Shard shard : shards)
+      n += shard.handoffs;
+    return n;
+  }
+
+  // Cruces que esperaron un tick porque la cola del vecino estaba llena
+  public long handoffsDeferred() {
+    long n = 0;
+    for (Shard shard : shards)
+      n += shard.deferred;
+    return n;
+  }
+
+  @Override
+  public synchronized void close() {
+    running = false;
+    for (ExecutorService executor : executors)
+      executor.shutdownNow();
+    try {
+      for (ExecutorService executor : executors)
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private Shard shardAt(int gx, int gy) {
+    return shards[(gy / shardHeight) * cols + gx / shardWidth];
+  }
+
+  // Todo su estado, salvo la cola de entrada y los contadores volatile, es del
+  // hilo del shard
+  private final class Shard {
+    final int x0, y0; // esquina en coordenadas del mundo
+    final Board board;
+    final HandoffQueue<Arrival> inbox = new HandoffQueue<>(INBOX_CAPACITY);
+    final SplittableRandom rnd;
+    final StepBatch batch = new StepBatch(64);
+    final Map<Snake, Integer> turbo = new IdentityHashMap<>();
+    long tick = 0;
+    volatile long moves = 0;
+    volatile long handoffs = 0;
+    volatile long deferred = 0;
+
+    Shard(int x0, int y0, long seed) {
+      this.x0 = x0;
+      this.y0 = y0;
+      this.board = Board.shard(shardWidth, shardHeight, seed);
+      this.rnd = new SplittableRandom(seed);
+    }
+
+    void loop(long tickMillis) {
+      long period = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+      long next = System.nanoTime();
+      try {
+        while (running && !Thread.currentThread().isInterrupted()) {
+          admitArrivals();
+          tick();
+          if (period > 0) {
+            next += period;
+            long wait = next - System.nanoTime();
+            if (wait > 0)
+              TimeUnit.NANOSECONDS.sleep(wait);
+            else
+              next = System.nanoTime(); // atrasado: no acumular ráfagas
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+
+    void admitArrivals() {
+      Arrival a;
+      while ((a = inbox.poll()) != null) {
+        board.admit(a.snake());
+        if (a.turboTicks() > 0)
+          turbo.put(a.snake(), a.turboTicks());
+      }
+    }
+
+    // Como un tick del TickEngine: sin turbo mueve cada 2 ticks
+    void tick() {
+      batch.clear();
+      for (Snake s : board.liveSnakes()) {
+        if (turbo.containsKey(s) || (tick & 1) == 0) {
+          double p = turbo.containsKey(s) ? 0.05 : 0.10;
+          batch.add(s, rnd.nextDouble() < p ? randomDirection() : null);
+        }
+      }
+      board.stepAll(batch);
+      long moved = 0;
+      for (int k = 0; k < batch.size(); k++) {
+        Snake s = batch.snake(k);
+        switch (batch.result(k)) {
+          case HIT_OBSTACLE -> s.turn(randomDirection());
+          case ATE_TURBO -> {
+            turbo.put(s, TURBO_MOVES);
+            moved++;
+          }
+          case DEAD_BY_OTHER, DEAD_BY_SELF -> {
+            board.killSnake(s, batch.result(k) == Board.MoveResult.DEAD_BY_OTHER);
+            turbo.remove(s);
+            continue;
+          }
+          case EXITED -> {
+            handOff(s);
+            continue;
+          }
+          default -> moved++;
+        }
+        Integer t = turbo.get(s);
+        if (t != null) {
+          if (t > 1)
+            turbo.put(s, t - 1);
+          else
+            turbo.remove(s);
+        }
+      }
+      moves += moved;
+      tick++;
+    }
+
+    // La cabeza salió del shard: entrar al vecino en la celda siguiente
+    void handOff(Snake s) {
+      int head = s.headCell();
+      Direction dir = s.direction();
+      int gx = Math.floorMod(x0 + Snake.cellX(head) + dir.dx, width);
+      int gy = Math.floorMod(y0 + Snake.cellY(head) + dir.dy, height);
+      Shard dest = shardAt(gx, gy);
+      int lx = gx - dest.x0, ly = gy - dest.y0;
+      int entry = dest.board.reserveEntry(lx, ly);
+      if (entry == Board.ENTRY_OCCUPIED) {
+        board.killSnake(s, true); // chocó con una serpiente del otro lado
+        turbo.remove(s);
+        return;
+      }
+      if (entry == Board.ENTRY_BLOCKED) {
+        s.turn(randomDirection()); // obstáculo del otro lado: rebota
+        return;
+      }
+      Snake moved = Snake.of(lx, ly, dir);
+      moved.restoreMaxLength(s.maxLength());
+      Integer t = turbo.get(s);
+      if (!dest.inbox.offer(new Arrival(moved, t != null ? t : 0))) {
+        dest.board.cancelEntry(lx, ly);
+        deferred++;
+        return;
+      }
+      board.transfer(s);
+      turbo.remove(s);
+      handoffs++;
+      moves++;
+    }
+
+    private Direction randomDirection() {
+      Direction[] dirs = Direction.values();
+      return dirs[rnd.nextInt(dirs.length)];
+    }
+  }
+}
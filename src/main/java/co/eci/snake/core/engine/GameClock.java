@@ -3,39 +3,175 @@ package co.eci.snake.core.engine;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import co.eci.snake.core.GameState;
+import co.eci.snake.metrics.Metrics;
 
+// Ritmo de frames de la UI. Cada tick se reprograma (no es de tasa fija) con un
+// período que se adapta: si la UI no terminó el frame anterior (frameDone) el
+// tick se descarta en vez de encolar otro repaint, y el período sube; con
+// frames a tiempo vuelve a bajar de a poco hasta el mínimo. Con framesSignaled
+// solo hay tick cuando la simulación avisa un frame nuevo (frameAvailable).
 public final class GameClock implements AutoCloseable {
+  // Tope del período bajo carga (~10 fps)
+  private static final long MAX_PERIOD_MILLIS = 100;
+  // Frames seguidos pintados a tiempo antes de bajar el período un cuarto
+  private static final int CALM_FRAMES = 8;
+  // Un frame sin frameDone en este tiempo se da por perdido (ventana oculta:
+  // Swing no pinta y no avisa)
+  private static final long STALE_FRAME_NANOS = TimeUnit.SECONDS.toNanos(1);
+
   private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
   private final long periodMillis;
   private final Runnable tick;
+  private final boolean framesSignaled;
   private final AtomicReference<ClockState> state = new AtomicReference<>(ClockState.STOPPED);
 
   private final GameState gameState;
 
+  // Período actual, entre periodMillis y MAX_PERIOD_MILLIS
+  private volatile long currentPeriodMillis;
+  // Frame entregado a la UI y todavía no pintado: no se pide otro (coalesce)
+  private final AtomicBoolean inFlight = new AtomicBoolean();
+  private volatile long inFlightSince;
+  // La simulación publicó un frame que la UI no pidió todavía
+  private final AtomicBoolean frameReady = new AtomicBoolean();
+  // Sin tick programado: se espera a frameAvailable
+  private final AtomicBoolean idle = new AtomicBoolean();
+  private long due; // hora programada del próximo tick (solo el scheduler)
+  private int calm; // frames seguidos a tiempo (con el monitor)
+
+  private final AtomicLong framesDrawn = new AtomicLong();
+  private final AtomicLong framesDropped = new AtomicLong();
+  private final AtomicLong framesLate = new AtomicLong();
+
   //El enum ahora esta en local
   private enum ClockState { STOPPED, RUNNING }
 
 
   public GameClock(long periodMillis, Runnable tick, GameState gameState) {
+    this(periodMillis, tick, gameState, false);
+  }
+
+  // framesSignaled: la simulación avisa cada frame publicado con frameAvailable;
+  // si no, cada tick del reloj es un frame nuevo
+  public GameClock(long periodMillis, Runnable tick, GameState gameState, boolean framesSignaled) {
     if (periodMillis <= 0) throw new IllegalArgumentException("periodMillis must be > 0");
     this.periodMillis = periodMillis;
+    this.currentPeriodMillis = periodMillis;
     this.tick = java.util.Objects.requireNonNull(tick, "tick");
     this.gameState = java.util.Objects.requireNonNull(gameState, "gameState");
+    this.framesSignaled = framesSignaled;
   }
 
   public void start() {
     if (state.compareAndSet(ClockState.STOPPED, ClockState.RUNNING)) {
-      scheduler.scheduleAtFixedRate(() -> {
-        if (state.get() == ClockState.RUNNING&& !gameState.isPaused()) {
-          tick.run();
+      due = System.nanoTime();
+      scheduler.execute(this::run);
+    }
+  }
+
+  // Lo llama la simulación al publicar un frame (cualquier hilo). Si el reloj
+  // estaba esperando, programa el tick respetando el período actual.
+  public void frameAvailable() {
+    frameReady.set(true);
+    wake();
+  }
+
+  // Lo llama la UI (EDT) cuando terminó de pintar el frame pedido en el tick
+  public void frameDone() {
+    if (!inFlight.get())
+      return; // paint que no vino de un tick (por ejemplo, la ventana se expuso)
+    long took = System.nanoTime() - inFlightSince;
+    inFlight.set(false);
+    if (took > TimeUnit.MILLISECONDS.toNanos(currentPeriodMillis)) {
+      framesLate.incrementAndGet();
+      slowDown();
+    } else {
+      onTime();
+    }
+  }
+
+  private void run() {
+    if (state.get() != ClockState.RUNNING)
+      return;
+    long now = System.nanoTime();
+    if (Metrics.ENABLED)
+      Metrics.CLOCK_LATENESS.record(Math.max(0, now - due));
+    if (gameState.isPaused()) {
+      schedule(now);
+      return;
+    }
+    if (framesSignaled && !frameReady.get()) {
+      // Nada nuevo que pintar: se duerme hasta frameAvailable. Volver a mirar
+      // después de marcar idle evita perder un aviso que llegó en el medio.
+      idle.set(true);
+      if (frameReady.get())
+        wake();
+      return;
+    }
+    if (inFlight.get() && now - inFlightSince < STALE_FRAME_NANOS) {
+      // La UI no terminó el anterior: no se apila otro repaint
+      framesDropped.incrementAndGet();
+      slowDown();
+      schedule(now);
+      return;
+    }
+    frameReady.set(false);
+    inFlightSince = now;
+    inFlight.set(true);
+    tick.run();
+    framesDrawn.incrementAndGet();
+    schedule(now);
+  }
+
+  private void schedule(long now) {
+    due = now + TimeUnit.MILLISECONDS.toNanos(currentPeriodMillis);
+    scheduler.schedule(this::run, due - now, TimeUnit.NANOSECONDS);
+  }
+
+  private void wake() {
+    if (idle.compareAndSet(true, false) && state.get() == ClockState.RUNNING) {
+      // El próximo tick no antes de lo que tocaba
+      scheduler.execute(() -> {
+        long now = System.nanoTime();
+        if (due <= now) {
+          due = now; // lo esperado no cuenta como retraso
+          run();
+        } else {
+          scheduler.schedule(this::run, due - now, TimeUnit.NANOSECONDS);
         }
-      }, 0, periodMillis, TimeUnit.MILLISECONDS);
+      });
     }
   }
 
+  // Bajo carga el período crece a la mitad más (hasta el tope); lo llaman el
+  // scheduler y el EDT
+  private synchronized void slowDown() {
+    calm = 0;
+    long p = currentPeriodMillis;
+    currentPeriodMillis = Math.min(MAX_PERIOD_MILLIS, Math.max(p + 1, p * 3 / 2));
+  }
+
+  // Sin carga vuelve hacia el mínimo, más despacio de lo que subió
+  private synchronized void onTime() {
+    if (++calm < CALM_FRAMES)
+      return;
+    calm = 0;
+    long p = currentPeriodMillis;
+    currentPeriodMillis = Math.max(periodMillis, p - Math.max(1, p / 4));
+  }
+
+  public long framesDrawn() { return framesDrawn.get(); }
+  // Ticks descartados porque la UI seguía con el frame anterior
+  public long framesDropped() { return framesDropped.get(); }
+  // Frames que la UI tardó más que el período en pintar
+  public long framesLate() { return framesLate.get(); }
+  public long currentPeriodMillis() { return currentPeriodMillis; }
+
   //Game state se encarga de pausar
   public void pause()  { gameState.pause(); }
   public void resume() { gameState.resume(); }
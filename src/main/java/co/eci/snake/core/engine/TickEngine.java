@@ -0,0 +1,360 @@
+package co.eci.snake.core.engine;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+
+import co.eci.snake.core.Board;
+import co.eci.snake.core.BrainView;
+import co.eci.snake.core.Checkpoint;
+import co.eci.snake.core.Direction;
+import co.eci.snake.core.GameState;
+import co.eci.snake.core.Snake;
+import co.eci.snake.core.SnakeBrain;
+import co.eci.snake.core.StepBatch;
+
+// Motor determinista por ticks: alternativa a un hilo virtual por serpiente.
+// Cada tick tiene dos fases:
+// 1) resolve: en paralelo (ForkJoinPool) cada serpiente decide su giro con el
+//    SnakeBrain y la misma vista del tablero. Nadie se mueve en esta fase, así
+//    que el orden de los hilos no importa.
+// 2) apply: las serpientes que mueven van en un solo Board.stepAll, en orden
+//    fijo; después se registran las muertes y el turbo en ese mismo orden.
+// La aleatoriedad sale de un hash de (semilla, tick, serpiente), nunca del
+// hilo que ejecuta, así que con la misma semilla la partida se repite igual.
+public final class TickEngine implements AutoCloseable {
+  // Un tick equivale al sleep en turbo; sin turbo la serpiente mueve cada 2 ticks
+  public static final long DEFAULT_TICK_MILLIS = 40;
+  private static final int TURBO_MOVES = 100;
+  // Por debajo de esto no vale la pena repartir la fase resolve
+  private static final int PARALLEL_THRESHOLD = 256;
+
+  private final Board board;
+  private final GameState gameState;
+  private final long seed;
+  private final long tickMillis;
+  private final ForkJoinPool pool;
+
+  private final Snake[] snakes;
+  // Número de cada serpiente en el hash (se conserva al restaurar)
+  private final int[] slot;
+  private final boolean[] alive;
+  private final int[] turboTicks;
+  // Resultado de la fase resolve
+  private final boolean[] due;
+  private final Direction[] turnTo; // null = sigue derecho
+  private volatile SnakeBrain brain = SnakeBrain.random();
+  private BrainView view; // la del tick en curso
+  // Lote reutilizable para Board.stepAll y el índice de cada serpiente en él
+  private final StepBatch batch;
+  private final int[] batchIndex;
+
+  private volatile long tick = 0;
+  private volatile long moves = 0;
+  private volatile int aliveCount;
+
+  private final AtomicReference<Thread> loop = new AtomicReference<>();
+
+  // Checkpoints periódicos (null = desactivados)
+  private volatile Path checkpointFile;
+  private volatile long checkpointEvery;
+  // El tick solo copia el estado; mapear, force y renombrar van en este hilo.
+  // Sin cola: si el anterior sigue escribiendo, ese checkpoint se salta.
+  private final ExecutorService checkpointWriter = Executors.newSingleThreadExecutor(r -> {
+    Thread t = new Thread(r, "checkpoint-writer");
+    t.setDaemon(true);
+    return t;
+  });
+  private volatile Future<?> pendingCheckpoint;
+  // Error del escritor, pendiente de informar desde el hilo del tick
+  private final AtomicReference<IOException> checkpointError = new AtomicReference<>();
+  private volatile IOException lastCheckpointFailure;
+  private volatile long checkpointsSkipped = 0;
+
+  public TickEngine(Board board, GameState gameState, long seed, long tickMillis) {
+    this(board, gameState, seed, tickMillis, 0, null);
+  }
+
+  // Continúa una partida restaurada: board debe venir de checkpoint.restoreBoard()
+  public TickEngine(Board board, GameState gameState, Checkpoint checkpoint, long tickMillis) {
+    this(board, gameState, checkpoint.seed(), tickMillis, checkpoint.tick(), checkpoint);
+  }
+
+  private TickEngine(Board board, GameState gameState, long seed, long tickMillis, long startTick,
+      Checkpoint checkpoint) {
+    this.board = Objects.requireNonNull(board, "board");
+    this.gameState = Objects.requireNonNull(gameState, "gameState");
+    if (tickMillis < 0) throw new IllegalArgumentException("tickMillis must be >= 0");
+    this.seed = seed;
+    this.tickMillis = tickMillis;
+    this.pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    List<Snake> initial = board.snakes();
+    int n = initial.size();
+    this.snakes = initial.toArray(new Snake[0]);
+    this.alive = new boolean[n];
+    this.turboTicks = new int[n];
+    this.due = new boolean[n];
+    this.turnTo = new Direction[n];
+    this.slot = new int[n];
+    this.batch = new StepBatch(n);
+    this.batchIndex = new int[n];
+    Arrays.fill(alive, true);
+    this.aliveCount = n;
+    this.tick = startTick;
+    if (checkpoint != null) {
+      if (checkpoint.snakeCount() != n)
+        throw new IllegalArgumentException("Board does not match checkpoint");
+      for (int i = 0; i < n; i++) {
+        turboTicks[i] = checkpoint.turboTicks(i);
+        slot[i] = checkpoint.slot(i);
+      }
+    } else {
+      for (int i = 0; i < n; i++)
+        slot[i] = i;
+    }
+  }
+
+  // Arranca el bucle en su propio hilo. tickMillis == 0 corre a máxima velocidad.
+  public void start() {
+    Thread t = new Thread(this::runLoop, "tick-engine");
+    if (loop.compareAndSet(null, t)) {
+      gameState.register(); // la pausa se completa con el motor entre ticks
+      t.start();
+    }
+  }
+
+  private void runLoop() {
+    try {
+      long nextTick = System.nanoTime();
+      while (!Thread.currentThread().isInterrupted() && aliveCount > 0) {
+        gameState.awaitIfPaused();
+        tick();
+        board.publishFrame(); // un frame consistente por tick para la UI
+        if (tickMillis > 0) {
+          nextTick += TimeUnit.MILLISECONDS.toNanos(tickMillis);
+          long wait = nextTick - System.nanoTime();
+          if (wait > 0)
+            TimeUnit.NANOSECONDS.sleep(wait);
+          else
+            nextTick = System.nanoTime(); // atrasado: no acumular ráfagas
+        }
+      }
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+    } finally {
+      gameState.deregister();
+    }
+  }
+
+  // Ejecuta ticks seguidos en el hilo actual (modo batch)
+  public void runTicks(long count) {
+    for (long i = 0; i < count && aliveCount > 0; i++)
+      tick();
+  }
+
+  public void tick() {
+    int n = snakes.length;
+    view = board.brainView();
+    if (n >= PARALLEL_THRESHOLD)
+      pool.submit(() -> IntStream.range(0, n).parallel().forEach(this::resolve)).join();
+    else
+      for (int i = 0; i < n; i++)
+        resolve(i);
+
+    batch.clear();
+    for (int i = 0; i < n; i++) {
+      if (due[i]) {
+        batchIndex[batch.size()] = i;
+        batch.add(snakes[i], turnTo[i]);
+      }
+    }
+    board.stepAll(batch);
+    for (int k = 0; k < batch.size(); k++)
+      apply(batchIndex[k], batch.result(k));
+    moves += batch.size();
+    tick++;
+
+    Path file = checkpointFile;
+    if (file != null) {
+      reportCheckpointFailure();
+      if (tick % checkpointEvery == 0)
+        checkpointInBackground(file);
+    }
+  }
+
+  private void checkpointInBackground(Path file) {
+    Future<?> previous = pendingCheckpoint;
+    if (previous != null && !previous.isDone()) {
+      checkpointsSkipped++; // el disco no da abasto: no se apilan copias
+      return;
+    }
+    Checkpoint.Snapshot snapshot = captureCheckpoint();
+    try {
+      pendingCheckpoint = checkpointWriter.submit(() -> {
+        try {
+          snapshot.writeTo(file);
+        } catch (IOException e) {
+          checkpointError.set(e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      // motor cerrándose: el checkpoint final lo escribe quien lo cierra
+    }
+  }
+
+  private void reportCheckpointFailure() {
+    IOException e = checkpointError.getAndSet(null);
+    if (e != null) {
+      lastCheckpointFailure = e;
+      System.err.println("Checkpoint failed: " + e.getMessage());
+    }
+  }
+
+  // Estrategia de giro de todas las serpientes (random por defecto)
+  public void useBrain(SnakeBrain brain) {
+    this.brain = Objects.requireNonNull(brain, "brain");
+  }
+
+  // Guarda un checkpoint al final de cada everyTicks ticks. En el borde del
+  // tick solo se copia el estado a arreglos; el archivo se escribe en otro hilo
+  public void checkpointEvery(Path file, long everyTicks) {
+    if (everyTicks <= 0)
+      throw new IllegalArgumentException("everyTicks must be > 0");
+    this.checkpointEvery = everyTicks;
+    this.checkpointFile = Objects.requireNonNull(file, "file");
+  }
+
+  // Solo entre ticks: desde el hilo que llama tick() o con el motor detenido.
+  // Espera al checkpoint periódico en curso (mismo archivo temporal) y escribe
+  // en el hilo actual.
+  public void writeCheckpoint(Path file) throws IOException {
+    awaitCheckpoint();
+    captureCheckpoint().writeTo(file);
+  }
+
+  private void awaitCheckpoint() throws IOException {
+    Future<?> previous = pendingCheckpoint;
+    if (previous == null)
+      return;
+    try {
+      previous.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted waiting for checkpoint");
+    } catch (ExecutionException e) {
+      throw new IOException("Checkpoint writer failed", e.getCause());
+    } finally {
+      reportCheckpointFailure();
+    }
+  }
+
+  private Checkpoint.Snapshot captureCheckpoint() {
+    List<Snake> living = new ArrayList<>(aliveCount);
+    int[] turbo = new int[aliveCount];
+    int[] slots = new int[aliveCount];
+    for (int i = 0; i < snakes.length; i++) {
+      if (alive[i]) {
+        turbo[living.size()] = turboTicks[i];
+        slots[living.size()] = slot[i];
+        living.add(snakes[i]);
+      }
+    }
+    return Checkpoint.capture(board, living, turbo, slots, tick, seed);
+  }
+
+  // Fase resolve: decidir si mueve y si gira. Solo escribe due[i] y turnTo[i].
+  private void resolve(int i) {
+    due[i] = alive[i] && isDue(i);
+    turnTo[i] = due[i] ? brain.decide(snakes[i], view, turboTicks[i] > 0, hash(i, 0)) : null;
+  }
+
+  // Fase apply: consecuencias del paso, secuencial y en orden fijo
+  private void apply(int i, Board.MoveResult res) {
+    Snake snake = snakes[i];
+    if (res == Board.MoveResult.HIT_OBSTACLE) {
+      snake.turn(pickDirection(hash(i, 2)));
+    } else if (res == Board.MoveResult.ATE_TURBO) {
+      turboTicks[i] = TURBO_MOVES;
+    } else if (res == Board.MoveResult.DEAD_BY_OTHER || res == Board.MoveResult.DEAD_BY_SELF) {
+      board.killSnake(snake, res == Board.MoveResult.DEAD_BY_OTHER);
+      alive[i] = false;
+      aliveCount--;
+      return;
+    }
+    if (turboTicks[i] > 0)
+      turboTicks[i]--;
+  }
+
+  private boolean isDue(int i) {
+    return turboTicks[i] > 0 || (tick & 1) == 0;
+  }
+
+  private static Direction pickDirection(long h) {
+    var dirs = Direction.values();
+    return dirs[(int) Long.remainderUnsigned(h, dirs.length)];
+  }
+
+  private long hash(int snake, int salt) {
+    return mix(seed ^ mix(tick * 0x9E3779B97F4A7C15L + slot[snake]) ^ salt);
+  }
+
+  // Finalizador de SplitMix64
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  public long ticks() {
+    return tick;
+  }
+
+  public long moves() {
+    return moves;
+  }
+
+  public int aliveCount() {
+    return aliveCount;
+  }
+
+  // Último error de un checkpoint periódico (null si no hubo)
+  public IOException lastCheckpointFailure() {
+    return lastCheckpointFailure;
+  }
+
+  // Checkpoints periódicos salteados porque el anterior seguía escribiendo
+  public long checkpointsSkipped() {
+    return checkpointsSkipped;
+  }
+
+  // Espera a que termine el bucle iniciado con start()
+  public void join() throws InterruptedException {
+    Thread t = loop.get();
+    if (t != null)
+      t.join();
+  }
+
+  @Override
+  public void close() {
+    Thread t = loop.get();
+    if (t != null)
+      t.interrupt();
+    pool.shutdownNow();
+    // Un checkpoint a medio escribir termina (el archivo queda entero)
+    checkpointWriter.shutdown();
+  }
+}
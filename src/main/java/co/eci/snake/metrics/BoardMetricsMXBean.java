@@ -0,0 +1,15 @@
+package co.eci.snake.metrics;
+
+import java.util.Map;
+
+// Vista JMX de las tasas que calcula MetricsReporter (último intervalo)
+public interface BoardMetricsMXBean {
+  long getMoves();
+
+  double getMovesPerSecond();
+
+  int getAliveSnakes();
+
+  // Movimientos por segundo de cada serpiente viva ("#índice" -> tasa)
+  Map<String, Double> getMovesPerSecondBySnake();
+}
@@ -0,0 +1,166 @@
+package co.eci.snake.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Histograma de latencias estilo HDR: buckets log-lineales (cada potencia de
+// dos se parte en 2^SUB_BITS sub-buckets, error relativo < 1/2^SUB_BITS) sobre
+// arreglos de contadores atómicos. Registrar es un par de operaciones
+// atómicas sin locks ni objetos; los percentiles se calculan al leer.
+//
+// Los contadores van en franjas, como las celdas de LongAdder: todos los hilos
+// registran latencias parecidas (los mismos buckets), así que un solo arreglo
+// sería una línea de caché disputada en cada Board.step. Cada hilo usa la
+// franja de su hash; se empieza con una y se duplican cuando un CAS falla por
+// contención, hasta MAX_STRIPES. snapshot() suma todas.
+public final class LatencyHistogram implements LatencyMXBean {
+  private static final int SUB_BITS = 5;
+  private static final int SUB_COUNT = 1 << SUB_BITS;
+  private static final int SUB_MASK = SUB_COUNT - 1;
+  private static final int BUCKETS = (64 - SUB_BITS) << SUB_BITS;
+  private static final int MAX_STRIPES = Math.min(64,
+      Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)) << 1);
+
+  private final String name;
+  private volatile AtomicLongArray[] stripes = { new AtomicLongArray(BUCKETS) };
+  private final LongAdder sum = new LongAdder();
+  private final AtomicLong max = new AtomicLong();
+
+  public LatencyHistogram(String name) {
+    this.name = name;
+  }
+
+  public String name() {
+    return name;
+  }
+
+  // Valor en nanosegundos; los negativos cuentan como 0
+  public void record(long nanos) {
+    long v = Math.max(0, nanos);
+    int i = index(v);
+    AtomicLongArray[] cs = stripes;
+    AtomicLongArray counts = cs[stripe(cs.length)];
+    long n = counts.get(i);
+    if (!counts.compareAndSet(i, n, n + 1)) {
+      counts.getAndIncrement(i);
+      if (cs.length < MAX_STRIPES)
+        grow(cs);
+    }
+    sum.add(v);
+    if (v > max.get())
+      max.accumulateAndGet(v, Math::max);
+  }
+
+  // Franja del hilo actual: hash de identidad, estable mientras viva el hilo
+  private static int stripe(int count) {
+    int h = System.identityHashCode(Thread.currentThread());
+    return (h ^ (h >>> 16)) & (count - 1);
+  }
+
+  private synchronized void grow(AtomicLongArray[] seen) {
+    if (stripes != seen)
+      return; // otro hilo ya la hizo crecer
+    AtomicLongArray[] bigger = Arrays.copyOf(seen, seen.length * 2);
+    for (int k = seen.length; k < bigger.length; k++)
+      bigger[k] = new AtomicLongArray(BUCKETS);
+    stripes = bigger;
+  }
+
+  static int index(long v) {
+    if (v < SUB_COUNT)
+      return (int) v;
+    int exp = 63 - Long.numberOfLeadingZeros(v);
+    return ((exp - SUB_BITS + 1) << SUB_BITS) + (int) ((v >>> (exp - SUB_BITS)) & SUB_MASK);
+  }
+
+  // Mayor valor que cae en el bucket
+  static long upperBound(int index) {
+    if (index < SUB_COUNT)
+      return index;
+    int shift = (index >>> SUB_BITS) - 1;
+    long lower = (long) (SUB_COUNT + (index & SUB_MASK)) << shift;
+    return lower + (1L << shift) - 1;
+  }
+
+  // Foto de los contadores: los percentiles de una misma foto son coherentes
+  public Snapshot snapshot() {
+    long[] c = new long[BUCKETS];
+    for (AtomicLongArray counts : stripes) {
+      for (int i = 0; i < BUCKETS; i++)
+        c[i] += counts.get(i);
+    }
+    long total = 0;
+    for (long n : c)
+      total += n;
+    return new Snapshot(c, total, sum.sum(), max.get());
+  }
+
+  @Override
+  public void reset() {
+    for (AtomicLongArray counts : stripes) {
+      for (int i = 0; i < BUCKETS; i++)
+        counts.set(i, 0);
+    }
+    sum.reset();
+    max.set(0);
+  }
+
+  @Override
+  public long getCount() {
+    return snapshot().count();
+  }
+
+  @Override
+  public double getMeanMicros() {
+    return snapshot().mean() / 1000.0;
+  }
+
+  @Override
+  public double getP50Micros() {
+    return snapshot().percentile(50) / 1000.0;
+  }
+
+  @Override
+  public double getP99Micros() {
+    return snapshot().percentile(99) / 1000.0;
+  }
+
+  @Override
+  public double getP999Micros() {
+    return snapshot().percentile(99.9) / 1000.0;
+  }
+
+  @Override
+  public double getMaxMicros() {
+    return max.get() / 1000.0;
+  }
+
+  public record Snapshot(long[] counts, long count, long sum, long max) {
+    public double mean() {
+      return count == 0 ? 0 : (double) sum / count;
+    }
+
+    // Percentil p (0-100) en nanosegundos: cota superior del bucket
+    public long percentile(double p) {
+      if (count == 0)
+        return 0;
+      long rank = Math.max(1, (long) Math.ceil(count * p / 100.0));
+      long seen = 0;
+      for (int i = 0; i < counts.length; i++) {
+        seen += counts[i];
+        if (seen >= rank)
+          return Math.min(upperBound(i), max);
+      }
+      return max;
+    }
+
+    // Una línea para el volcado de texto
+    public String format(String name) {
+      return String.format("%-18s n=%-10d media=%8.1f µs  p50=%8.1f  p99=%8.1f  p99.9=%8.1f  max=%8.1f", name,
+          count, mean() / 1000.0, percentile(50) / 1000.0, percentile(99) / 1000.0, percentile(99.9) / 1000.0,
+          max / 1000.0);
+    }
+  }
+}
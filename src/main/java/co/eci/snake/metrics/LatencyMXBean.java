@@ -0,0 +1,18 @@
+package co.eci.snake.metrics;
+
+// Vista JMX de un LatencyHistogram (tiempos en microsegundos)
+public interface LatencyMXBean {
+  long getCount();
+
+  double getMeanMicros();
+
+  double getP50Micros();
+
+  double getP99Micros();
+
+  double getP999Micros();
+
+  double getMaxMicros();
+
+  void reset();
+}
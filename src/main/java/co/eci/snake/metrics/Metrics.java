@@ -0,0 +1,56 @@
+package co.eci.snake.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Métricas globales del proceso. Son estáticas para que Board, Snake, el reloj
+// y la UI las registren sin cablear nada. Apagadas por defecto: solo con
+// -Dsnake.metrics=true se leen relojes; si no, el JIT elimina las mediciones
+// (ENABLED es una constante).
+public final class Metrics {
+  public static final boolean ENABLED = Boolean.getBoolean("snake.metrics");
+
+  // Duración de Board.step y de un lote completo de Board.stepAll
+  public static final LatencyHistogram STEP = new LatencyHistogram("step");
+  public static final LatencyHistogram STEP_BATCH = new LatencyHistogram("step-batch");
+  // Lock de la franja de items: espera (solo si estaba tomado) y tiempo tomado
+  public static final LatencyHistogram STRIPE_WAIT = new LatencyHistogram("stripe-lock-wait");
+  public static final LatencyHistogram STRIPE_HOLD = new LatencyHistogram("stripe-lock-hold");
+  // StampedLock del cuerpo: espera del escritor y del lector sin optimismo
+  public static final LatencyHistogram SNAKE_WRITE_WAIT = new LatencyHistogram("snake-write-wait");
+  public static final LatencyHistogram SNAKE_READ_WAIT = new LatencyHistogram("snake-read-wait");
+  // Retraso de cada tick de GameClock respecto a su hora programada
+  public static final LatencyHistogram CLOCK_LATENESS = new LatencyHistogram("clock-lateness");
+  // Desvío de cada movimiento de un SnakeRunner respecto a su cadencia
+  // (80/40 ms): compara los hilos virtuales con la rueda de tiempos
+  public static final LatencyHistogram MOVE_JITTER = new LatencyHistogram("move-jitter");
+  // Retraso de cada ranura de la rueda de tiempos respecto a su hora
+  public static final LatencyHistogram WHEEL_LATENESS = new LatencyHistogram("wheel-lateness");
+  // Tiempo de un frame de la UI (refresh + paint)
+  public static final LatencyHistogram UI_FRAME = new LatencyHistogram("ui-frame");
+
+  public static final List<LatencyHistogram> HISTOGRAMS = List.of(STEP, STEP_BATCH, STRIPE_WAIT, STRIPE_HOLD,
+      SNAKE_WRITE_WAIT, SNAKE_READ_WAIT, CLOCK_LATENESS, MOVE_JITTER, WHEEL_LATENESS, UI_FRAME);
+
+  // Movimientos de todas las serpientes (LongAdder: sin contención entre hilos)
+  public static final LongAdder MOVES = new LongAdder();
+
+  private Metrics() {
+  }
+
+  // Registra los histogramas en el MBeanServer de la plataforma como
+  // co.eci.snake:type=Latency,name=<nombre>
+  public static void registerMBeans() throws JMException {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    for (LatencyHistogram h : HISTOGRAMS) {
+      ObjectName name = new ObjectName("co.eci.snake:type=Latency,name=" + h.name());
+      if (!server.isRegistered(name))
+        server.registerMBean(h, name);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+package co.eci.snake.metrics;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import co.eci.snake.core.Board;
+import co.eci.snake.core.Snake;
+
+// Muestrea el Board una vez por segundo (movimientos totales y por serpiente)
+// y cada dumpSeconds imprime un resumen de texto con las tasas y los
+// histogramas de Metrics. Las mismas tasas se exponen por JMX.
+public final class MetricsReporter implements BoardMetricsMXBean, AutoCloseable {
+  private static final int TOP_SNAKES = 5;
+
+  private final Board board;
+  private final PrintStream out;
+  private final int dumpSeconds;
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread t = new Thread(r, "metrics-reporter");
+    t.setDaemon(true);
+    return t;
+  });
+
+  // Estado del muestreo (solo el hilo del reporter escribe)
+  private final Map<Snake, Long> lastMoves = new IdentityHashMap<>();
+  private long lastTotal = 0;
+  private long lastSample = System.nanoTime();
+  private long samples = 0;
+  private volatile double movesPerSecond = 0;
+  private volatile Map<String, Double> bySnake = Map.of();
+
+  // dumpSeconds <= 0: solo muestrea (para JMX), sin imprimir
+  public MetricsReporter(Board board, PrintStream out, int dumpSeconds) {
+    this.board = board;
+    this.out = out;
+    this.dumpSeconds = dumpSeconds;
+  }
+
+  public void start() {
+    scheduler.scheduleAtFixedRate(this::sample, 1, 1, TimeUnit.SECONDS);
+  }
+
+  // Registra las tasas como co.eci.snake:type=Board y los histogramas
+  public void registerMBeans() throws JMException {
+    Metrics.registerMBeans();
+    ObjectName name = new ObjectName("co.eci.snake:type=Board");
+    var server = ManagementFactory.getPlatformMBeanServer();
+    if (!server.isRegistered(name))
+      server.registerMBean(this, name);
+  }
+
+  private void sample() {
+    long now = System.nanoTime();
+    double seconds = Math.max(now - lastSample, 1) / 1e9;
+    long total = Metrics.MOVES.sum();
+    movesPerSecond = (total - lastTotal) / seconds;
+    lastTotal = total;
+    lastSample = now;
+
+    List<Snake> snakes = board.snakes();
+    Map<String, Double> rates = new LinkedHashMap<>();
+    Map<Snake, Long> seen = new IdentityHashMap<>();
+    for (int i = 0; i < snakes.size(); i++) {
+      Snake s = snakes.get(i);
+      long moves = s.moves();
+      Long before = lastMoves.get(s);
+      rates.put("#" + i, before == null ? 0.0 : (moves - before) / seconds);
+      seen.put(s, moves);
+    }
+    lastMoves.clear();
+    lastMoves.putAll(seen); // las muertas salen del mapa
+    bySnake = rates;
+
+    if (dumpSeconds > 0 && ++samples % dumpSeconds == 0)
+      dump();
+  }
+
+  private void dump() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(String.format("[metrics] movimientos: %d (%.0f/s) | vivas: %d%n", lastTotal, movesPerSecond,
+        board.snakes().size()));
+    for (LatencyHistogram h : Metrics.HISTOGRAMS) {
+      LatencyHistogram.Snapshot s = h.snapshot();
+      if (s.count() > 0)
+        sb.append("  ").append(s.format(h.name())).append('\n');
+    }
+    List<Map.Entry<String, Double>> top = new ArrayList<>(bySnake.entrySet());
+    top.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+    if (!top.isEmpty()) {
+      sb.append("  mov/s por serpiente (top ").append(Math.min(TOP_SNAKES, top.size())).append("):");
+      for (int i = 0; i < Math.min(TOP_SNAKES, top.size()); i++)
+        sb.append(String.format(" %s=%.1f", top.get(i).getKey(), top.get(i).getValue()));
+      sb.append('\n');
+    }
+    out.print(sb);
+  }
+
+  @Override
+  public long getMoves() {
+    return Metrics.MOVES.sum();
+  }
+
+  @Override
+  public double getMovesPerSecond() {
+    return movesPerSecond;
+  }
+
+  @Override
+  public int getAliveSnakes() {
+    return board.snakes().size();
+  }
+
+  @Override
+  public Map<String, Double> getMovesPerSecondBySnake() {
+    return bySnake;
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+  }
+}
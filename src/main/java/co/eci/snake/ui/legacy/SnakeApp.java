@@ -2,18 +2,22 @@ package co.eci.snake.ui.legacy;
 
 import co.eci.snake.core.Board;
 import co.eci.snake.core.Direction;
+import co.eci.snake.core.DistanceField;
+import co.eci.snake.core.Frame;
 import co.eci.snake.core.GameState;
-import co.eci.snake.core.Position;
 import co.eci.snake.core.Snake;
 import co.eci.snake.core.engine.GameClock;
+import co.eci.snake.metrics.Metrics;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
 public final class SnakeApp extends JFrame {
+  private static final int TOP_SNAKES = 3; // ranking en el panel de pausa
 
   // Recibir GameState desde Main
   // GameState es el monitor compartido para pausa
@@ -32,6 +36,10 @@ public final class SnakeApp extends JFrame {
   // Lista de serpientes se obtiene del Board
 
   public SnakeApp(GameState gameState, Board board) {
+    this(gameState, board, false);
+  }
+
+  public SnakeApp(GameState gameState, Board board, boolean framesFromEngine) {
     super("The Snake Race");
 
     // Guardar referencias a dependencias
@@ -41,10 +49,10 @@ public final class SnakeApp extends JFrame {
     // Obtener serpientes directamente del Board
     List<Snake> snakes = board.snakes();
 
-    // GamePanel debe pintar la lista viva en cada repaint
+    // GamePanel pinta el último frame publicado por el Board
     // Evita que serpientes muertas queden congeladas y respeta el número real de
     // serpientes
-    this.gamePanel = new GamePanel(board, board::snakes);
+    this.gamePanel = new GamePanel(board);
     this.actionButton = new JButton("Action");
 
     // Área de estadísticas visible solo durante pausa
@@ -68,7 +76,17 @@ public final class SnakeApp extends JFrame {
 
     // Crear GameClock con tick que redibuja el panel
     // gamePanel solo existe dentro de SnakeApp.
-    this.clock = new GameClock(16, () -> SwingUtilities.invokeLater(gamePanel::repaint), gameState);
+    // Con frames del motor el reloj solo pide repaint cuando hay uno nuevo; el
+    // panel avisa al terminar de pintar para que no se acumulen repaints.
+    this.clock = new GameClock(16, () -> {
+      // Con hilos por serpiente no hay "fin de tick": el reloj arma el frame
+      if (!framesFromEngine)
+        board.publishFrame();
+      SwingUtilities.invokeLater(gamePanel::refresh);
+    }, gameState, framesFromEngine);
+    gamePanel.onFrameDone(clock::frameDone);
+    if (framesFromEngine)
+      board.onFramePublished(clock::frameAvailable);
     clock.start();
 
     actionButton.addActionListener((ActionEvent e) -> togglePause());
@@ -81,6 +99,15 @@ public final class SnakeApp extends JFrame {
       }
     });
 
+    // H: mapa de calor de la distancia al ratón más cercano
+    gamePanel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(KeyStroke.getKeyStroke('H'), "heat-map");
+    gamePanel.getActionMap().put("heat-map", new AbstractAction() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        gamePanel.toggleHeatMap();
+      }
+    });
+
     var player = snakes.get(0);
     InputMap im = gamePanel.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
     ActionMap am = gamePanel.getActionMap();
@@ -152,144 +179,361 @@ public final class SnakeApp extends JFrame {
   private void togglePause() {
     if ("Action".equals(actionButton.getText())) {
       actionButton.setText("Resume");
-      gameState.pause();
+      // Las estadísticas se muestran cuando todos los hilos están detenidos en
+      // awaitIfPaused(); el EDT no espera. Si se reanuda antes, no se muestran.
+      gameState.pause().thenRun(() -> SwingUtilities.invokeLater(() -> {
+        if (gameState.isPaused())
+          showStats();
+      }));
+    } else {
+      actionButton.setText("Action");
+      gameState.resume();
+      statsArea.setVisible(false);
+    }
+  }
 
-      // da tiempo para que todos lleguen a awaitIfPaused()
-      try {
-        Thread.sleep(100);
-      } catch (InterruptedException e) {
-        Thread.currentThread().interrupt();
-      }
+  // Con todos los hilos detenidos: snapshot consistente del tablero
+  private void showStats() {
+    Board.Stats stats = board.getStats();
 
-      // Snapshot consistente del tablero
-      Board.Stats stats = board.getStats();
-
-      StringBuilder sb = new StringBuilder();
-      sb.append("🐍 Vivas: ").append(stats.aliveCount())
-          .append(" | 💀 Muertas: ").append(stats.deadCount())
-          .append(" | ⚔️ Choques: ").append(stats.collisionCount()).append("\n");
-
-      if (stats.longestAlive() != null) {
-        int idx = board.snakes().indexOf(stats.longestAlive());
-        int len = stats.longestAlive().snapshot().size();
-        sb.append("Serpiente viva más larga: #").append(idx)
-            .append(" (longitud: ").append(len).append(")\n");
-      } else {
-        sb.append("Serpiente viva más larga: Ninguna\n");
-      }
+    StringBuilder sb = new StringBuilder();
+    sb.append("🐍 Vivas: ").append(stats.aliveCount())
+        .append(" | 💀 Muertas: ").append(stats.deadCount())
+        .append(" | ⚔️ Choques: ").append(stats.collisionCount()).append("\n");
 
-      if (stats.firstDead() != null) {
-        sb.append("Peor serpiente (primera en morir): #")
-            .append(stats.firstDead().snakeIndex())
-            .append(" (longitud: ").append(stats.firstDead().length()).append(")\n");
-      } else {
-        sb.append("Peor serpiente: Ninguna ha muerto aún\n");
-      }
+    if (stats.longestAlive() != null) {
+      int idx = board.snakes().indexOf(stats.longestAlive());
+      int len = stats.longestAlive().length();
+      sb.append("Serpiente viva más larga: #").append(idx)
+          .append(" (longitud: ").append(len).append(")\n");
+    } else {
+      sb.append("Serpiente viva más larga: Ninguna\n");
+    }
 
-      statsArea.setText(sb.toString());
-      statsArea.setVisible(true);
+    List<Board.Leader> top = board.leaderboard(TOP_SNAKES);
+    if (top.size() > 1) {
+      List<Snake> alive = board.snakes();
+      sb.append("Top ").append(top.size()).append(":");
+      for (Board.Leader l : top)
+        sb.append(" #").append(alive.indexOf(l.snake())).append(" (").append(l.length()).append(")");
+      sb.append("\n");
+    }
+
+    if (stats.firstDead() != null) {
+      sb.append("Peor serpiente (primera en morir): #")
+          .append(stats.firstDead().snakeIndex())
+          .append(" (longitud: ").append(stats.firstDead().length()).append(")\n");
     } else {
-      actionButton.setText("Action");
-      gameState.resume();
-      statsArea.setVisible(false);
+      sb.append("Peor serpiente: Ninguna ha muerto aún\n");
+    }
+
+    // Tiempo de render incremental
+    sb.append(String.format("Frame: %.1f µs media (último %.1f µs, %d celdas redibujadas)%n",
+        gamePanel.avgFrameMicros(), gamePanel.lastFrameMicros(), gamePanel.lastDirtyCells()));
+    sb.append(String.format("Frames: %d pintados | %d descartados | %d tarde | período %d ms (%.0f fps)%n",
+        clock.framesDrawn(), clock.framesDropped(), clock.framesLate(), clock.currentPeriodMillis(),
+        1000.0 / clock.currentPeriodMillis()));
+
+    // Contención de los locks de items por franja
+    long acq = 0, contended = 0, wait = 0, hold = 0;
+    Board.StripeStats worst = null;
+    for (Board.StripeStats st : board.stripeStats()) {
+      acq += st.acquisitions();
+      contended += st.contended();
+      wait += st.waitNanos();
+      hold += st.holdNanos();
+      if (worst == null || st.contended() > worst.contended())
+        worst = st;
+    }
+    if (acq > 0) {
+      sb.append(String.format("Locks items: %d adq | contención %.2f%%", acq, 100.0 * contended / acq));
+      // Los tiempos solo se miden con -Dsnake.metrics=true
+      if (Metrics.ENABLED)
+        sb.append(String.format(" | espera media %.1f µs | hold medio %.1f µs",
+            wait / 1000.0 / Math.max(1, contended), hold / 1000.0 / acq));
+      sb.append(" | franja más disputada #").append(worst.stripe())
+          .append(" (filas ").append(worst.fromRow()).append("-").append(worst.toRow() - 1)
+          .append(", ").append(worst.contended()).append(" esperas)\n");
     }
+
+    statsArea.setText(sb.toString());
+    statsArea.setVisible(true);
   }
 
   public static final class GamePanel extends JPanel {
+    // Contenido de cada celda, para detectar qué cambió entre frames
+    private static final int EMPTY = 0;
+    private static final int OBSTACLE = 1;
+    private static final int MOUSE = 2;
+    private static final int TURBO = 3;
+    private static final int SNAKE = 8; // + índice en la paleta
+    private static final int SHADES = 11; // shade = max(0, 40 - 4i) llega a 0 en i = 10
+    private static final int HEAT = 2 * SHADES + SNAKE; // + nivel del mapa de calor
+    private static final int HEAT_LEVELS = 8;
+    private static final int HEAT_STEP = 3; // pasos por nivel
+    // Lado (en celdas) de los bloques que se repintan: Swing une los repaint
+    // sueltos en un solo rectángulo que los abarca a todos, así que las zonas
+    // sucias se pintan una por una con paintImmediately
+    private static final int TILE = 8;
+
     private final Board board;
-    private final Supplier snakesSupplier;
     private final int cell = 20;
 
-    @FunctionalInterface
-    public interface Supplier {
-      List<Snake> get();
-    }
-
-    public GamePanel(Board board, Supplier snakesSupplier) {
+    // Grilla y obstáculos (solo se agregan): se pintan una vez
+    private final BufferedImage background;
+    // Celdas con teleport: la flecha va sobre ratones y mapa de calor y debajo
+    // de turbo y serpientes, así que se pinta con cada celda
+    private final boolean[] teleport;
+    // Tablero completo ya pintado; cada frame solo toca las celdas que cambian
+    private final BufferedImage canvas;
+    private int[] shown;
+    private int[] next;
+    private final boolean[] dirtyTiles;
+    private final int tilesX;
+    private long shownSequence = -1;
+    private int bakedObstacles = 0;
+    private final Color[] palette = new Color[2 * SHADES];
+    private final Color[] heat = new Color[HEAT_LEVELS];
+    private boolean heatMap = false; // solo el EDT
+
+    // Métricas de render (solo las escribe el EDT)
+    private volatile long lastFrameNanos;
+    private volatile double avgFrameNanos;
+    private volatile long lastDirtyCells;
+    // A quién avisar cuando un refresh quedó en pantalla
+    private Runnable frameDone = () -> {
+    };
+
+    public GamePanel(Board board) {
       this.board = board;
-      this.snakesSupplier = snakesSupplier;
+      int w = board.width() * cell + 1, h = board.height() * cell + 1;
       setPreferredSize(new Dimension(board.width() * cell + 1, board.height() * cell + 40));
       setBackground(Color.WHITE);
+      this.background = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+      this.canvas = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+      this.shown = new int[board.width() * board.height()];
+      this.next = new int[shown.length];
+      this.teleport = new boolean[shown.length];
+      for (var from : board.teleports().keySet())
+        teleport[from.y() * board.width() + from.x()] = true;
+      this.tilesX = (board.width() + TILE - 1) / TILE;
+      this.dirtyTiles = new boolean[tilesX * ((board.height() + TILE - 1) / TILE)];
+      for (int k = 0; k < 2 * SHADES; k++) {
+        Color base = (k < SHADES) ? new Color(0, 170, 0) : new Color(0, 160, 180);
+        int shade = Math.max(0, 40 - (k % SHADES) * 4);
+        palette[k] = new Color(
+            Math.min(255, base.getRed() + shade),
+            Math.min(255, base.getGreen() + shade),
+            Math.min(255, base.getBlue() + shade));
+      }
+      for (int k = 0; k < HEAT_LEVELS; k++)
+        heat[k] = new Color(255, 80, 0, 150 - k * 140 / HEAT_LEVELS);
+      paintBackground(new int[0], 0);
+      copyBackgroundTo(canvas);
+      Graphics2D g2 = canvas.createGraphics();
+      g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      for (int idx = 0; idx < teleport.length; idx++)
+        if (teleport[idx])
+          paintCell(g2, EMPTY, idx, (idx % board.width()) * cell, (idx / board.width()) * cell);
+      g2.dispose();
     }
 
-    @Override
-    protected void paintComponent(Graphics g) {
-      super.paintComponent(g);
-      var g2 = (Graphics2D) g.create();
-      g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    // Se llama en el EDT al final de cada refresh (ya pintado, o sin cambios)
+    public void onFrameDone(Runnable listener) {
+      this.frameDone = listener;
+    }
 
-      g2.setColor(new Color(220, 220, 220));
-      for (int x = 0; x <= board.width(); x++)
-        g2.drawLine(x * cell, 0, x * cell, board.height() * cell);
-      for (int y = 0; y <= board.height(); y++)
-        g2.drawLine(0, y * cell, board.width() * cell, y * cell);
+    // EDT: muestra u oculta el mapa de calor en las celdas vacías
+    public void toggleHeatMap() {
+      heatMap = !heatMap;
+      shownSequence = -1; // redibujar aunque no haya frame nuevo
+      refresh();
+    }
 
-      // Obstáculos
-      g2.setColor(new Color(255, 102, 0));
-      for (var p : board.obstacles()) {
-        int x = p.x() * cell, y = p.y() * cell;
-        g2.fillRect(x + 2, y + 2, cell - 4, cell - 4);
-        g2.setColor(Color.RED);
-        g2.drawLine(x + 4, y + 4, x + cell - 6, y + 4);
-        g2.drawLine(x + 4, y + 8, x + cell - 6, y + 8);
-        g2.drawLine(x + 4, y + 12, x + cell - 6, y + 12);
-        g2.setColor(new Color(255, 102, 0));
+    // EDT: toma el último frame, pinta en el canvas solo las celdas que cambiaron
+    // y copia a pantalla solo los bloques que las contienen
+    public void refresh() {
+      Frame frame = board.latestFrame();
+      if (frame.sequence() == shownSequence) {
+        frameDone.run();
+        return;
+      }
+      long start = System.nanoTime();
+      shownSequence = frame.sequence();
+
+      int w = board.width();
+      Arrays.fill(next, EMPTY);
+      boolean rebuild = frame.obstacleCount() != bakedObstacles;
+      for (int k = 0; k < frame.obstacleCount(); k++) {
+        int idx = Frame.y(frame.obstacle(k)) * w + Frame.x(frame.obstacle(k));
+        next[idx] = OBSTACLE;
+        if (shown[idx] != OBSTACLE)
+          rebuild = true; // obstáculo nuevo: va al fondo
+      }
+      for (int k = 0; k < frame.mouseCount(); k++)
+        next[Frame.y(frame.mouse(k)) * w + Frame.x(frame.mouse(k))] = MOUSE;
+      // Un turbo tapa al ratón de su celda; la flecha del teleport queda entre
+      // los dos (paintCell)
+      for (int k = 0; k < frame.turboCount(); k++)
+        next[Frame.y(frame.turbo(k)) * w + Frame.x(frame.turbo(k))] = TURBO;
+      // Distancias sin lock: la última versión completa del campo del Board
+      if (heatMap) {
+        DistanceField field = board.distanceField();
+        for (int idx = 0; idx < next.length; idx++) {
+          int d = next[idx] == EMPTY ? field.at(idx % w, idx / w) : DistanceField.UNREACHABLE;
+          if (d != DistanceField.UNREACHABLE)
+            next[idx] = HEAT + Math.min(d / HEAT_STEP, HEAT_LEVELS - 1);
+        }
       }
+      // Las serpientes se pintan encima en orden, como antes
+      for (int sn = 0; sn < frame.snakeCount(); sn++) {
+        int base = SNAKE + (sn == 0 ? 0 : SHADES);
+        for (int i = 0; i < frame.snakeLength(sn); i++) {
+          int c = frame.snakeCell(sn, i);
+          next[Frame.y(c) * w + Frame.x(c)] = base + Math.min(i, SHADES - 1);
+        }
+      }
+      if (rebuild) {
+        int[] obstacleCells = new int[frame.obstacleCount()];
+        for (int k = 0; k < obstacleCells.length; k++)
+          obstacleCells[k] = frame.obstacle(k);
+        paintBackground(obstacleCells, obstacleCells.length);
+        bakedObstacles = obstacleCells.length;
+      }
+
+      Graphics2D g2 = canvas.createGraphics();
+      g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      long dirty = 0;
+      for (int idx = 0; idx < next.length; idx++) {
+        if (next[idx] == shown[idx])
+          continue;
+        int x = (idx % w) * cell, y = (idx / w) * cell;
+        // Restaurar el fondo de la celda (con sus bordes) y pintar el contenido
+        g2.drawImage(background, x, y, x + cell + 1, y + cell + 1, x, y, x + cell + 1, y + cell + 1, null);
+        paintCell(g2, next[idx], idx, x, y);
+        dirtyTiles[(idx / w) / TILE * tilesX + (idx % w) / TILE] = true;
+        dirty++;
+      }
+      g2.dispose();
+      int[] tmp = shown;
+      shown = next;
+      next = tmp;
+
+      // Cada fila de bloques se copia en tramos de bloques sucios seguidos
+      int span = TILE * cell;
+      for (int t = 0; t < dirtyTiles.length; ) {
+        if (!dirtyTiles[t]) {
+          t++;
+          continue;
+        }
+        int from = t, rowEnd = (t / tilesX + 1) * tilesX;
+        while (t < rowEnd && dirtyTiles[t])
+          dirtyTiles[t++] = false;
+        paintImmediately((from % tilesX) * span, (from / tilesX) * span, (t - from) * span + 1, span + 1);
+      }
+
+      lastDirtyCells = dirty;
+      recordFrameTime(System.nanoTime() - start);
+      frameDone.run();
+    }
 
-      // Ratones
-      g2.setColor(Color.BLACK);
-      for (var p : board.mice()) {
-        int x = p.x() * cell, y = p.y() * cell;
+    // Capas en el orden de siempre: ratón o calor, teleport, turbo, serpiente
+    private void paintCell(Graphics2D g2, int code, int idx, int x, int y) {
+      if (code == MOUSE) {
+        g2.setColor(Color.BLACK);
         g2.fillOval(x + 4, y + 4, cell - 8, cell - 8);
         g2.setColor(Color.WHITE);
         g2.fillOval(x + 8, y + 8, cell - 16, cell - 16);
-        g2.setColor(Color.BLACK);
+      } else if (code >= HEAT) {
+        g2.setColor(heat[code - HEAT]);
+        g2.fillRect(x + 1, y + 1, cell - 1, cell - 1);
       }
-
-      // Teleports (flechas rojas)
-      Map<Position, Position> tp = board.teleports();
-      g2.setColor(Color.RED);
-      for (var entry : tp.entrySet()) {
-        Position from = entry.getKey();
-        int x = from.x() * cell, y = from.y() * cell;
+      if (teleport[idx] && (code < SNAKE || code >= HEAT)) {
+        g2.setColor(Color.RED);
         int[] xs = { x + 4, x + cell - 4, x + cell - 10, x + cell - 10, x + 4 };
         int[] ys = { y + cell / 2, y + cell / 2, y + 4, y + cell - 4, y + cell / 2 };
         g2.fillPolygon(xs, ys, xs.length);
       }
-
-      // Turbo (rayos)
-      g2.setColor(Color.BLACK);
-      for (var p : board.turbo()) {
-        int x = p.x() * cell, y = p.y() * cell;
+      if (code == TURBO) {
+        g2.setColor(Color.BLACK);
         int[] xs = { x + 8, x + 12, x + 10, x + 14, x + 6, x + 10 };
         int[] ys = { y + 2, y + 2, y + 8, y + 8, y + 16, y + 10 };
         g2.fillPolygon(xs, ys, xs.length);
+      } else if (code >= SNAKE && code < HEAT) {
+        g2.setColor(palette[code - SNAKE]);
+        g2.fillRect(x + 2, y + 2, cell - 4, cell - 4);
       }
+    }
 
-      // Serpientes
-      var snakes = snakesSupplier.get();
-      int idx = 0;
-      for (Snake s : snakes) {
-        var body = s.snapshot().toArray(new Position[0]);
-        for (int i = 0; i < body.length; i++) {
-          var p = body[i];
-          Color base = (idx == 0) ? new Color(0, 170, 0) : new Color(0, 160, 180);
-          int shade = Math.max(0, 40 - i * 4);
-          g2.setColor(new Color(
-              Math.min(255, base.getRed() + shade),
-              Math.min(255, base.getGreen() + shade),
-              Math.min(255, base.getBlue() + shade)));
-          g2.fillRect(p.x() * cell + 2, p.y() * cell + 2, cell - 4, cell - 4);
-        }
-        idx++;
+    // Fondo estático: grilla y obstáculos
+    private void paintBackground(int[] obstacleCells, int count) {
+      Graphics2D g2 = background.createGraphics();
+      g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+      g2.setColor(Color.WHITE);
+      g2.fillRect(0, 0, background.getWidth(), background.getHeight());
+
+      g2.setColor(new Color(220, 220, 220));
+      for (int x = 0; x <= board.width(); x++)
+        g2.drawLine(x * cell, 0, x * cell, board.height() * cell);
+      for (int y = 0; y <= board.height(); y++)
+        g2.drawLine(0, y * cell, board.width() * cell, y * cell);
+
+      // Obstáculos
+      for (int k = 0; k < count; k++) {
+        int x = Frame.x(obstacleCells[k]) * cell, y = Frame.y(obstacleCells[k]) * cell;
+        g2.setColor(new Color(255, 102, 0));
+        g2.fillRect(x + 2, y + 2, cell - 4, cell - 4);
+        g2.setColor(Color.RED);
+        g2.drawLine(x + 4, y + 4, x + cell - 6, y + 4);
+        g2.drawLine(x + 4, y + 8, x + cell - 6, y + 8);
+        g2.drawLine(x + 4, y + 12, x + cell - 6, y + 12);
       }
       g2.dispose();
     }
+
+    private void copyBackgroundTo(BufferedImage target) {
+      Graphics2D g2 = target.createGraphics();
+      g2.drawImage(background, 0, 0, null);
+      g2.dispose();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+      super.paintComponent(g);
+      // Desde refresh el clip es un tramo de bloques sucios: solo se copia ese
+      g.drawImage(canvas, 0, 0, null);
+    }
+
+    private void recordFrameTime(long nanos) {
+      lastFrameNanos = nanos;
+      if (Metrics.ENABLED)
+        Metrics.UI_FRAME.record(nanos);
+      avgFrameNanos = avgFrameNanos == 0 ? nanos : avgFrameNanos * 0.9 + nanos * 0.1;
+    }
+
+    // Tiempo de frame en el EDT (refresh + paint), media móvil en µs
+    public double avgFrameMicros() {
+      return avgFrameNanos / 1000.0;
+    }
+
+    public double lastFrameMicros() {
+      return lastFrameNanos / 1000.0;
+    }
+
+    public long lastDirtyCells() {
+      return lastDirtyCells;
+    }
   }
 
   public static void launch(GameState gameState, Board board) {
+    launch(gameState, board, false);
+  }
+
+  // framesFromEngine: el motor (TickEngine) publica un frame por tick; si no,
+  // el reloj de la UI publica antes de cada repaint.
+  public static void launch(GameState gameState, Board board, boolean framesFromEngine) {
     SwingUtilities.invokeLater(() -> {
-      new SnakeApp(gameState, board);
+      new SnakeApp(gameState, board, framesFromEngine);
     });
   }
 }
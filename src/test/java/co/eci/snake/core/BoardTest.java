@@ -0,0 +1,30 @@
+package co.eci.snake.core;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+// Límites de tamaño del constructor: las celdas se empaquetan como x << 16 | y
+// y se indexan con int (y * width + x)
+class BoardTest {
+
+  @Test
+  void rejectsNonPositiveDimensions() {
+    assertThrows(IllegalArgumentException.class, () -> new Board(0, 10));
+    assertThrows(IllegalArgumentException.class, () -> new Board(10, -1, 1));
+  }
+
+  @Test
+  void rejectsCoordinatesAbove16Bits() {
+    assertThrows(IllegalArgumentException.class, () -> new Board(Board.MAX_DIMENSION + 1, 1));
+    assertThrows(IllegalArgumentException.class, () -> new Board(1, Board.MAX_DIMENSION + 1, 1));
+  }
+
+  // Cada lado entra en 16 bits pero width * height no entra en un int
+  @Test
+  void rejectsCellCountAboveIntRange() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new Board(Board.MAX_DIMENSION, Board.MAX_DIMENSION));
+    assertThrows(IllegalArgumentException.class, () -> new Board(Board.MAX_DIMENSION, 32769, 1));
+  }
+}
@@ -0,0 +1,59 @@
+package co.eci.snake.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import co.eci.snake.core.engine.TickEngine;
+
+// Los checkpoints periódicos se copian en el borde del tick y se escriben en
+// otro hilo mientras el motor sigue: el archivo tiene que ser el del tick en
+// que se copió, y restaurarlo tiene que seguir la misma partida.
+class CheckpointTest {
+  @TempDir
+  Path dir;
+
+  @Test
+  void periodicCheckpointHoldsItsTickAndResumesTheSameGame() throws Exception {
+    Path periodic = dir.resolve("periodic.snkc");
+    Board board = new Board(48, 32, 7);
+    Direction[] dirs = Direction.values();
+    for (int i = 0; i < 40; i++) {
+      Position p = board.randomEmpty();
+      board.addSnake(Snake.of(p.x(), p.y(), dirs[i % dirs.length]));
+    }
+    try (TickEngine engine = new TickEngine(board, new GameState(), 7, 0)) {
+      engine.checkpointEvery(periodic, 50);
+      engine.runTicks(80);
+      // Espera al escritor de fondo antes de leer su archivo
+      engine.writeCheckpoint(dir.resolve("final.snkc"));
+      assertNull(engine.lastCheckpointFailure());
+      assertEquals(0, engine.checkpointsSkipped());
+    }
+
+    Checkpoint saved = Checkpoint.read(periodic);
+    assertEquals(50, saved.tick());
+    Board restored = saved.restoreBoard();
+    try (TickEngine resumed = new TickEngine(restored, new GameState(), saved, 0)) {
+      resumed.runTicks(30);
+    }
+    assertEquals(board.mice(), restored.mice());
+    assertEquals(board.obstacles(), restored.obstacles());
+    assertEquals(board.turbo(), restored.turbo());
+    assertEquals(bodies(board.snakes()), bodies(restored.snakes()));
+    assertEquals(board.deaths(), restored.deaths());
+  }
+
+  private static List<List<Position>> bodies(List<Snake> snakes) {
+    List<List<Position>> out = new ArrayList<>();
+    for (Snake s : snakes)
+      out.add(List.copyOf(s.snapshot()));
+    return out;
+  }
+}
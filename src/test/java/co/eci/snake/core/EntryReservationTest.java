@@ -0,0 +1,70 @@
+package co.eci.snake.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+// Traspasos de World contra los spawns del shard de destino: una entrada
+// reservada nunca termina con un obstáculo abajo de la serpiente admitida, y
+// un obstáculo nunca queda abajo de una reserva.
+class EntryReservationTest {
+
+  @Test
+  void spawnNeverPlacesObstacleUnderReservedEntry() throws Exception {
+    for (int round = 0; round < 200; round++) {
+      Board board = Board.empty(12, 12, new int[0], null);
+      CellLayer obstacles = board.layer(Board.ITEM_OBSTACLE);
+      CountDownLatch go = new CountDownLatch(1);
+      AtomicReference<Throwable> failure = new AtomicReference<>();
+      long seed = round;
+
+      // El shard llena su tablero de obstáculos
+      Thread spawner = new Thread(() -> {
+        try {
+          go.await();
+          while (board.spawnObstacle() != null) {
+            // hasta que no quede celda libre
+          }
+        } catch (Throwable t) {
+          failure.compareAndSet(null, t);
+        }
+      });
+      // El vecino reserva entradas y admite serpientes en ellas
+      Thread handoff = new Thread(() -> {
+        try {
+          SplittableRandom rnd = new SplittableRandom(seed);
+          go.await();
+          for (int i = 0; i < 400; i++) {
+            int x = rnd.nextInt(12), y = rnd.nextInt(12);
+            if (board.reserveEntry(x, y) != Board.ENTRY_RESERVED)
+              continue;
+            assertFalse(obstacles.contains(x, y), "obstacle under reservation " + x + "," + y);
+            board.admit(Snake.of(x, y, Direction.UP));
+          }
+        } catch (Throwable t) {
+          failure.compareAndSet(null, t);
+        }
+      });
+      spawner.start();
+      handoff.start();
+      go.countDown();
+      spawner.join();
+      handoff.join();
+      if (failure.get() != null)
+        throw new AssertionError("round " + round, failure.get());
+
+      for (Snake s : board.snakes()) {
+        int head = s.headCell();
+        assertFalse(obstacles.contains(Snake.cellX(head), Snake.cellY(head)),
+            "round " + round + ": snake admitted onto an obstacle");
+      }
+      // Cada celda terminó con un obstáculo o con una serpiente, no con ambos
+      assertEquals(144, obstacles.count() + board.snakes().size(), "round " + round);
+    }
+  }
+}
@@ -0,0 +1,136 @@
+package co.eci.snake.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+// MouseField aplica cada cambio de ratones y obstáculos sin recalcular; después
+// de cada tanda de cambios al azar latest() tiene que coincidir con un BFS
+// completo desde todos los ratones.
+class MouseFieldTest {
+
+  @Test
+  void matchesFullRebuildWithWrap() {
+    check(23, 17, true, 1, 6);
+  }
+
+  @Test
+  void matchesFullRebuildWithoutWrap() {
+    check(23, 17, false, 2, 6);
+  }
+
+  // Varios bloques de DistanceField y muchos ratones: regiones chicas
+  @Test
+  void matchesFullRebuildAcrossChunksWithManyMice() {
+    check(71, 45, true, 3, 60);
+    check(71, 45, false, 4, 60);
+  }
+
+  // Un solo ratón: comerlo invalida casi todo el tablero (recálculo completo)
+  @Test
+  void matchesFullRebuildWithSingleMouse() {
+    check(30, 20, true, 5, 1);
+    check(30, 20, false, 6, 1);
+  }
+
+  // Más cambios que la cola de pendientes: se pierden avisos y se recalcula
+  @Test
+  void recoversFromPendingOverflow() {
+    int w = 120, h = 80;
+    CellLayer mice = new CellLayer(w, h);
+    CellLayer obstacles = new CellLayer(w, h);
+    MouseField field = new MouseField(w, h, true, mice, obstacles);
+    SplittableRandom rnd = new SplittableRandom(7);
+    for (int i = 0; i < 6000; i++)
+      toggle(rnd, mice, obstacles, w, h, 40);
+    assertSame(field.latest(), mice, obstacles, w, h, true, "after overflow");
+  }
+
+  private static void check(int w, int h, boolean wrap, long seed, int targetMice) {
+    CellLayer mice = new CellLayer(w, h);
+    CellLayer obstacles = new CellLayer(w, h);
+    SplittableRandom rnd = new SplittableRandom(seed);
+    for (int i = 0; i < targetMice; i++)
+      toggle(rnd, mice, obstacles, w, h, targetMice);
+    MouseField field = new MouseField(w, h, wrap, mice, obstacles);
+    assertSame(field.latest(), mice, obstacles, w, h, wrap, "initial");
+    for (int batch = 0; batch < 400; batch++) {
+      int changes = 1 + rnd.nextInt(8);
+      for (int i = 0; i < changes; i++)
+        toggle(rnd, mice, obstacles, w, h, targetMice);
+      if (rnd.nextInt(4) == 0)
+        field.current(); // aplicar a medias no cambia el resultado
+      assertSame(field.latest(), mice, obstacles, w, h, wrap, "batch " + batch);
+    }
+  }
+
+  // Un cambio al azar que respeta la regla del tablero (ratón y obstáculo
+  // nunca en la misma celda): poner o sacar un ratón (cerca de target ratones)
+  // o, con menos frecuencia, un obstáculo
+  private static void toggle(SplittableRandom rnd, CellLayer mice, CellLayer obstacles, int w, int h,
+      int target) {
+    int x = rnd.nextInt(w), y = rnd.nextInt(h);
+    if (rnd.nextInt(5) == 0) {
+      if (obstacles.contains(x, y))
+        obstacles.remove(x, y);
+      else if (!mice.contains(x, y))
+        obstacles.add(x, y);
+    } else if (mice.contains(x, y)) {
+      mice.remove(x, y);
+    } else if (!obstacles.contains(x, y)) {
+      if (mice.count() >= target) { // comer uno para que aparezca otro
+        int i = mice.nextSetBit(rnd.nextInt(w * h));
+        if (i < 0)
+          i = mice.nextSetBit(0);
+        mice.remove(i % w, i / w);
+      }
+      mice.add(x, y);
+    }
+  }
+
+  private static void assertSame(DistanceField field, CellLayer mice, CellLayer obstacles, int w, int h,
+      boolean wrap, String when) {
+    int[] expected = rebuild(mice, obstacles, w, h, wrap);
+    for (int i = 0; i < expected.length; i++) {
+      int cell = i;
+      assertEquals(expected[i], field.at(i % w, i / w),
+          () -> when + ": cell " + (cell % w) + "," + (cell / w) + " (wrap " + wrap + ")");
+    }
+  }
+
+  // BFS desde cero, independiente de MouseField
+  private static int[] rebuild(CellLayer mice, CellLayer obstacles, int w, int h, boolean wrap) {
+    int[] dist = new int[w * h];
+    Arrays.fill(dist, DistanceField.UNREACHABLE);
+    ArrayDeque<Integer> queue = new ArrayDeque<>();
+    for (int i = 0; i < dist.length; i++) {
+      if (mice.contains(i % w, i / w) && !obstacles.contains(i % w, i / w)) {
+        dist[i] = 0;
+        queue.add(i);
+      }
+    }
+    while (!queue.isEmpty()) {
+      int cell = queue.poll();
+      int x = cell % w, y = cell / w;
+      for (Direction dir : Direction.values()) {
+        int nx = x + dir.dx, ny = y + dir.dy;
+        if (nx < 0 || nx >= w || ny < 0 || ny >= h) {
+          if (!wrap)
+            continue;
+          nx = Math.floorMod(nx, w);
+          ny = Math.floorMod(ny, h);
+        }
+        int next = ny * w + nx;
+        if (dist[next] == DistanceField.UNREACHABLE && !obstacles.contains(nx, ny)) {
+          dist[next] = dist[cell] + 1;
+          queue.add(next);
+        }
+      }
+    }
+    return dist;
+  }
+}
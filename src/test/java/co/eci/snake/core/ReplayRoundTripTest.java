@@ -0,0 +1,69 @@
+package co.eci.snake.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import co.eci.snake.core.engine.TickEngine;
+
+// Una partida con semilla en el TickEngine, grabada con ReplayRecorder y
+// reproducida con ReplayPlayer, tiene que terminar en el mismo tablero: items,
+// cuerpos de las vivas y muertes en el mismo orden y con los mismos índices.
+class ReplayRoundTripTest {
+  @TempDir
+  Path dir;
+
+  @Test
+  void replayEndsInRecordedState() throws Exception {
+    Path file = dir.resolve("game.snkr");
+    Board board = new Board(48, 32, 11);
+    ReplayRecorder recorder = ReplayRecorder.start(board, file);
+    Direction[] dirs = Direction.values();
+    for (int i = 0; i < 40; i++) {
+      Position p = board.randomEmpty();
+      board.addSnake(Snake.of(p.x(), p.y(), dirs[i % dirs.length]));
+    }
+    try (TickEngine engine = new TickEngine(board, new GameState(), 11, 0)) {
+      engine.runTicks(600);
+    }
+    recorder.close();
+    assertTrue(board.deaths() > 0, "the run should have deaths to compare");
+
+    try (ReplayPlayer player = ReplayPlayer.open(file)) {
+      player.play(0, null, false);
+      Board replayed = player.board();
+
+      assertEquals(board.mice(), replayed.mice());
+      assertEquals(board.obstacles(), replayed.obstacles());
+      assertEquals(board.turbo(), replayed.turbo());
+      assertEquals(bodies(board.snakes()), bodies(replayed.snakes()));
+
+      assertEquals(board.deaths(), replayed.deaths());
+      assertEquals(board.collisions(), replayed.collisions());
+      List<Board.DeadSnake> expected = board.deadSnakes();
+      List<Board.DeadSnake> actual = replayed.deadSnakes();
+      assertEquals(expected.size(), actual.size());
+      for (int i = 0; i < expected.size(); i++) {
+        Board.DeadSnake e = expected.get(i), a = actual.get(i);
+        String which = "death " + (i + 1);
+        assertEquals(e.deathOrder(), a.deathOrder(), which);
+        assertEquals(e.snakeIndex(), a.snakeIndex(), which);
+        assertEquals(e.length(), a.length(), which);
+        assertEquals(List.copyOf(e.snake().snapshot()), List.copyOf(a.snake().snapshot()), which);
+      }
+    }
+  }
+
+  private static List<List<Position>> bodies(List<Snake> snakes) {
+    List<List<Position>> out = new ArrayList<>();
+    for (Snake s : snakes)
+      out.add(List.copyOf(s.snapshot()));
+    return out;
+  }
+}
@@ -0,0 +1,123 @@
+package co.eci.snake.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+
+// snakeIndex de cada muerte tiene que ser la posición de la serpiente en
+// snakes() justo antes de morir (lo que daba indexOf sobre la lista vieja), y
+// deathOrder el orden de las muertes.
+class SnakeTableTest {
+
+  // Más de tres bloques de la tabla: rank() cuenta bits de bloques anteriores
+  @Test
+  void snakeIndexMatchesReferenceListAcrossChunks() {
+    Board board = new Board(300, 300, 1);
+    SplittableRandom rnd = new SplittableRandom(3);
+    List<Snake> reference = new ArrayList<>();
+    for (int i = 0; i < 3500; i++) {
+      Snake s = Snake.of(rnd.nextInt(300), rnd.nextInt(300), Direction.UP);
+      board.addSnake(s);
+      reference.add(s);
+    }
+    for (int k = 1; k <= 3000; k++) {
+      int idx = rnd.nextInt(reference.size());
+      Snake s = reference.remove(idx);
+      board.killSnake(s, k % 2 == 0);
+      Board.DeadSnake dead = board.deadSnakes().get(k - 1);
+      assertEquals(idx, dead.snakeIndex(), "snakeIndex of death " + k);
+      assertEquals(k, dead.deathOrder());
+      assertEquals(s, dead.snake());
+      if (k % 101 == 0)
+        assertEquals(reference, board.snakes());
+    }
+    assertEquals(reference, board.snakes());
+    assertEquals(3000, board.getStats().deadCount());
+    assertEquals(1500, board.getStats().collisionCount());
+  }
+
+  // Con altas entre las muertes las ranuras se reutilizan, pero el orden sigue
+  // siendo el de alta: el modelo es la lista de siempre (CopyOnWriteArrayList,
+  // altas al final) y snakeIndex su indexOf justo antes de morir
+  @Test
+  void snakeIndexFollowsInsertionOrderWhenSlotsAreReused() {
+    Board board = new Board(200, 200, 2);
+    SplittableRandom rnd = new SplittableRandom(5);
+    List<Snake> reference = new CopyOnWriteArrayList<>();
+    for (int i = 0; i < 1500; i++)
+      add(board, reference, rnd);
+    for (int k = 1; k <= 4000; k++) {
+      if (rnd.nextInt(3) > 0)
+        add(board, reference, rnd);
+      Snake s = reference.get(rnd.nextInt(reference.size()));
+      int expected = reference.indexOf(s);
+      reference.remove(s);
+      board.killSnake(s, false);
+      Board.DeadSnake dead = board.deadSnakes().get(k - 1);
+      assertEquals(expected, dead.snakeIndex(), "snakeIndex of death " + k);
+      assertEquals(k, dead.deathOrder());
+      if (k % 97 == 0)
+        assertEquals(reference, board.snakes(), "order after death " + k);
+    }
+    assertEquals(reference, board.snakes());
+  }
+
+  // A igual largo el ranking desempata por antigüedad, también con ranuras
+  // reutilizadas (un id más bajo ya no es una serpiente más vieja)
+  @Test
+  void leaderboardTieBreakIsInsertionOrder() {
+    Board board = new Board(100, 100, 4);
+    SplittableRandom rnd = new SplittableRandom(9);
+    List<Snake> reference = new CopyOnWriteArrayList<>();
+    for (int i = 0; i < 300; i++)
+      add(board, reference, rnd);
+    for (int k = 0; k < 600; k++) {
+      board.killSnake(reference.remove(rnd.nextInt(reference.size())), false);
+      add(board, reference, rnd);
+    }
+    List<Snake> leaders = new ArrayList<>();
+    for (Board.Leader l : board.leaderboard(reference.size()))
+      leaders.add(l.snake());
+    assertEquals(reference, leaders); // todas de largo 1
+  }
+
+  private static void add(Board board, List<Snake> reference, SplittableRandom rnd) {
+    Snake s = Snake.of(rnd.nextInt(board.width()), rnd.nextInt(board.height()), Direction.LEFT);
+    board.addSnake(s);
+    reference.add(s);
+  }
+
+  @Test
+  void killingTwiceOrForeignSnakeIsIgnored() {
+    Board board = new Board(20, 20, 3);
+    Snake a = Snake.of(1, 1, Direction.UP);
+    Snake b = Snake.of(5, 5, Direction.UP);
+    board.addSnake(a);
+    board.addSnake(b);
+    board.killSnake(a, false);
+    board.killSnake(a, true);
+    board.killSnake(Snake.of(9, 9, Direction.UP), false);
+    assertEquals(1, board.deadSnakes().size());
+    assertEquals(List.of(b), board.snakes());
+  }
+
+  // Una ranura liberada vuelve con otra generación: el id no se repite
+  @Test
+  void reusedSlotGetsDifferentId() {
+    SnakeTable table = new SnakeTable();
+    Snake a = Snake.of(0, 0, Direction.UP);
+    int id = table.allocate();
+    table.add(id, table.nextSequence(), a);
+    table.remove(id, a);
+    table.free(id);
+    int again = table.allocate();
+    assertEquals(SnakeTable.slotOf(id), SnakeTable.slotOf(again));
+    assertNotEquals(id, again);
+  }
+}